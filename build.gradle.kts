@@ -37,4 +37,25 @@ dependencies {
 
 application {
     mainClass.set("com.luminiadev.lumi.codegen.LumiCodeGen")
-}
\ No newline at end of file
+}
+
+tasks.named<JavaExec>("run") {
+    systemProperty("lumi.codegen.version", project.version.toString())
+}
+
+val benchmark by sourceSets.creating {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations[benchmark.implementationConfigurationName].extendsFrom(configurations.implementation.get())
+configurations[benchmark.compileOnlyConfigurationName].extendsFrom(configurations.compileOnly.get())
+
+tasks.register<JavaExec>("benchmark") {
+    group = "verification"
+    description = "Runs the generators against synthetic datasets of increasing scale."
+    classpath = benchmark.runtimeClasspath
+    mainClass.set("com.luminiadev.lumi.codegen.benchmark.GeneratorBenchmark")
+    maxHeapSize = "8g"
+    args(providers.gradleProperty("scales").getOrElse("1,10,100,1000").split(","))
+}
@@ -0,0 +1,133 @@
+package com.luminiadev.lumi.codegen.benchmark;
+
+import com.luminiadev.lumi.codegen.CodeGenOptions;
+import com.luminiadev.lumi.codegen.data.CustomContent;
+import com.luminiadev.lumi.codegen.data.ResourceUtil;
+import com.luminiadev.lumi.codegen.generator.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs every generator against synthetic datasets of the given scales and reports
+ * wall time, peak heap usage and size of the generated sources.
+ * Scale 1 uses the bundled data. Usage: {@code ./gradlew benchmark -Pscales=1,10,100}
+ */
+public class GeneratorBenchmark {
+    private static final Path WORK_DIR = Path.of("build/benchmark/");
+    private static final long SEED = 42;
+
+    private static final Map<String, Consumer<CodeGenOptions>> GENERATORS = new LinkedHashMap<>();
+
+    static {
+        GENERATORS.put("SoundEnumGen", SoundEnumGen::generate);
+        GENERATORS.put("BiomeMusicGen", BiomeMusicGen::generate);
+        GENERATORS.put("ItemTypeGen", options -> ItemTypeGen.generate(options, CustomContent.empty()));
+        GENERATORS.put("ItemTagsGen", options -> ItemTagsGen.generate(options, CustomContent.empty()));
+        GENERATORS.put("ItemNamespaceIdGen", options -> ItemNamespaceIdGen.generate(options, CustomContent.empty()));
+        GENERATORS.put("BlockTypeGen", options -> BlockTypeGen.generate(options, CustomContent.empty()));
+        GENERATORS.put("BlockTagsGen", options -> BlockTagsGen.generate(options, CustomContent.empty()));
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Integer> scales = Stream.of(args.length > 0 ? args : new String[]{"1", "10", "100", "1000"})
+                .map(Integer::parseInt)
+                .collect(Collectors.toList());
+
+        List<Result> results = new ArrayList<>();
+        for (int scale : scales) {
+            Path scaleDir = WORK_DIR.resolve("scale-" + scale);
+            Path dataDir = null;
+            if (scale > 1) {
+                dataDir = scaleDir.resolve("data");
+                System.out.println("Writing synthetic dataset at " + scale + "x scale to " + dataDir);
+                new SyntheticDataset(dataDir, scale, SEED).write();
+            }
+            ResourceUtil.setDataDirectory(dataDir);
+
+            for (Map.Entry<String, Consumer<CodeGenOptions>> generator : GENERATORS.entrySet()) {
+                Path outputDir = scaleDir.resolve("generated").resolve(generator.getKey());
+                deleteRecursively(outputDir);
+
+                CodeGenOptions options = CodeGenOptions.parse(new String[]{"--output", outputDir.toString()});
+                Result result = measure(generator.getKey(), scale, outputDir, generator.getValue(), options);
+                System.out.println(result.format());
+                results.add(result);
+            }
+        }
+        ResourceUtil.setDataDirectory(null);
+
+        Path report = WORK_DIR.resolve("results.csv");
+        Files.createDirectories(WORK_DIR);
+        Files.write(report, Stream.concat(
+                Stream.of("generator,scale,time_ms,peak_heap_bytes,output_bytes,status"),
+                results.stream().map(Result::toCsv)
+        ).collect(Collectors.toList()));
+        System.out.println("Results written to " + report);
+    }
+
+    private static Result measure(String name, int scale, Path outputDir, Consumer<CodeGenOptions> generator, CodeGenOptions options) throws IOException {
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .collect(Collectors.toList());
+
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        String status = "ok";
+        long start = System.nanoTime();
+        try {
+            generator.accept(options);
+        } catch (OutOfMemoryError e) {
+            status = "out of memory";
+        }
+        long elapsed = System.nanoTime() - start;
+
+        // Sum of per-pool peaks, which may slightly overestimate the real peak of the whole heap
+        long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        return new Result(name, scale, elapsed / 1_000_000, peakHeap, directorySize(outputDir), status);
+    }
+
+    private static long directorySize(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return 0;
+        }
+        try (Stream<Path> stream = Files.walk(directory)) {
+            return stream.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> stream = Files.walk(directory)) {
+            for (Path path : stream.sorted((a, b) -> b.getNameCount() - a.getNameCount()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private record Result(String generator, int scale, long timeMillis, long peakHeapBytes, long outputBytes, String status) {
+        private String format() {
+            return String.format("%-20s %6dx %10d ms %10d MiB heap %10d KiB output  %s",
+                    this.generator, this.scale, this.timeMillis, this.peakHeapBytes >> 20, this.outputBytes >> 10, this.status);
+        }
+
+        private String toCsv() {
+            return String.join(",", this.generator, String.valueOf(this.scale), String.valueOf(this.timeMillis),
+                    String.valueOf(this.peakHeapBytes), String.valueOf(this.outputBytes), this.status);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.luminiadev.lumi.codegen.benchmark;
+
+import com.google.gson.stream.JsonWriter;
+import org.cloudburstmc.nbt.NbtMap;
+import org.cloudburstmc.nbt.NbtType;
+import org.cloudburstmc.nbt.NbtUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Writes synthetic data files in the same formats as the bundled ones,
+ * with sizes multiplied by the given scale.
+ */
+public class SyntheticDataset {
+    private static final int ITEMS = 1906;
+    private static final int ITEM_TAGS = 64;
+    private static final int BLOCK_TAGS = 39;
+    private static final int SOUNDS = 1749;
+    private static final int MUSIC = 47;
+    private static final int STATES_PER_BLOCK = 4;
+    private static final int TAG_MEMBERS = 16;
+    // Every n-th block also has a "minecraft:item." variant, like campfire or doors in vanilla data
+    private static final int ITEM_VARIANT_INTERVAL = 50;
+
+    private final Path dataDir;
+    private final int scale;
+    private final Random random;
+
+    public SyntheticDataset(Path dataDir, int scale, long seed) {
+        this.dataDir = dataDir;
+        this.scale = scale;
+        this.random = new Random(seed);
+    }
+
+    public void write() throws IOException {
+        int blocks = ITEMS * scale / 2;
+        int items = ITEMS * scale - blocks;
+
+        writeItemPalette(items, blocks);
+        writeRuntimeItemStates(items, blocks);
+        writeVanillaPalette(blocks);
+        writeLegacyItemIds(blocks);
+        writeItemOrdinals(items, blocks);
+        writeTags("kaooot/item_tags.json", ITEM_TAGS * scale, items, "minecraft:synthetic_item_");
+        writeTags("kaooot/block_tags.json", BLOCK_TAGS * scale, blocks, "minecraft:synthetic_block_");
+        writeSoundDefinitions(SOUNDS * scale);
+        writeMusicDefinitions(MUSIC * scale);
+    }
+
+    private void writeItemPalette(int items, int blocks) throws IOException {
+        try (JsonWriter writer = openJson("kaooot/item_palette.json")) {
+            writer.beginObject().name("items").beginArray();
+            for (int i = 0; i < items; i++) {
+                writePaletteEntry(writer, "minecraft:synthetic_item_" + i, itemId(i), "component_based");
+            }
+            for (int i = 0; i < blocks; i++) {
+                writePaletteEntry(writer, "minecraft:synthetic_block_" + i, blockId(i), "component_based");
+                if (i % ITEM_VARIANT_INTERVAL == 0) {
+                    writePaletteEntry(writer, "minecraft:item.synthetic_block_" + i, itemId(items + i), "component_based");
+                }
+            }
+            writer.endArray().endObject();
+        }
+    }
+
+    private void writeRuntimeItemStates(int items, int blocks) throws IOException {
+        try (JsonWriter writer = openJson("cloudburst/runtime_item_states.json")) {
+            writer.beginArray();
+            for (int i = 0; i < items; i++) {
+                writePaletteEntry(writer, "minecraft:synthetic_item_" + i, itemId(i), "componentBased");
+            }
+            for (int i = 0; i < blocks; i++) {
+                writePaletteEntry(writer, "minecraft:synthetic_block_" + i, blockId(i), "componentBased");
+            }
+            writer.endArray();
+        }
+    }
+
+    private void writeVanillaPalette(int blocks) throws IOException {
+        List<NbtMap> states = new ArrayList<>(blocks * STATES_PER_BLOCK);
+        for (int i = 0; i < blocks; i++) {
+            for (int state = 0; state < STATES_PER_BLOCK; state++) {
+                states.add(NbtMap.builder()
+                        .putString("name", "minecraft:synthetic_block_" + i)
+                        .putInt("block_id", blockId(i))
+                        .putCompound("states", NbtMap.builder().putInt("synthetic_state", state).build())
+                        .build());
+            }
+        }
+
+        Path path = resolve("cloudburst/vanilla_palette.nbt");
+        try (OutputStream output = Files.newOutputStream(path);
+             var writer = NbtUtils.createGZIPWriter(output)) {
+            writer.writeTag(NbtMap.builder().putList("blocks", NbtType.COMPOUND, states).build());
+        }
+    }
+
+    private void writeLegacyItemIds(int blocks) throws IOException {
+        try (JsonWriter writer = openJson("internal/legacy_item_ids.json")) {
+            writer.beginObject();
+            for (int i = 0; i < blocks; i += ITEM_VARIANT_INTERVAL) {
+                writer.name("minecraft:item.synthetic_block_" + i).value(blockId(i));
+            }
+            writer.endObject();
+        }
+    }
+
+    private void writeItemOrdinals(int items, int blocks) throws IOException {
+        try (JsonWriter writer = openJson("internal/item_ordinals.json")) {
+            writer.beginArray();
+            for (int i = 0; i < items; i++) {
+                writer.value("minecraft:synthetic_item_" + i);
+            }
+            for (int i = 0; i < blocks; i++) {
+                writer.value("minecraft:synthetic_block_" + i);
+            }
+            writer.endArray();
+        }
+    }
+
+    private void writeTags(String path, int tags, int members, String memberPrefix) throws IOException {
+        try (JsonWriter writer = openJson(path)) {
+            writer.beginObject();
+            for (int i = 0; i < tags; i++) {
+                writer.name("minecraft:synthetic_tag_" + i).beginArray();
+                for (int member = 0; member < TAG_MEMBERS; member++) {
+                    writer.value(memberPrefix + this.random.nextInt(members));
+                }
+                writer.endArray();
+            }
+            writer.endObject();
+        }
+    }
+
+    private void writeSoundDefinitions(int sounds) throws IOException {
+        try (JsonWriter writer = openJson("pack/sound_definitions.json")) {
+            writer.beginObject().name("format_version").value("1.20.20").name("sound_definitions").beginObject();
+            for (int i = 0; i < sounds; i++) {
+                writer.name("synthetic.sound_" + i).beginObject()
+                        .name("category").value("neutral")
+                        .name("sounds").beginArray();
+                int variants = 1 + this.random.nextInt(4);
+                for (int variant = 0; variant < variants; variant++) {
+                    writer.beginObject()
+                            .name("name").value("sounds/synthetic/sound_" + i + "_" + variant)
+                            .name("volume").value(this.random.nextDouble())
+                            .endObject();
+                }
+                writer.endArray().endObject();
+            }
+            writer.endObject().endObject();
+        }
+    }
+
+    private void writeMusicDefinitions(int biomes) throws IOException {
+        try (JsonWriter writer = openJson("pack/music_definitions.json")) {
+            writer.beginObject();
+            for (int i = 0; i < biomes; i++) {
+                int minDelay = 60 * (1 + this.random.nextInt(10));
+                writer.name("synthetic_biome_" + i).beginObject()
+                        .name("event_name").value("music.synthetic_" + i)
+                        .name("max_delay").value(minDelay * 3)
+                        .name("min_delay").value(minDelay)
+                        .endObject();
+            }
+            writer.endObject();
+        }
+    }
+
+    private static void writePaletteEntry(JsonWriter writer, String name, int id, String componentBasedName) throws IOException {
+        writer.beginObject()
+                .name("name").value(name)
+                .name("id").value(id)
+                .name("version").value(2)
+                .name(componentBasedName).value(false)
+                .endObject();
+    }
+
+    private static int itemId(int index) {
+        return index + 1;
+    }
+
+    private static int blockId(int index) {
+        return -index - 1;
+    }
+
+    private JsonWriter openJson(String path) throws IOException {
+        return new JsonWriter(Files.newBufferedWriter(resolve(path)));
+    }
+
+    private Path resolve(String path) throws IOException {
+        Path file = this.dataDir.resolve(path);
+        Files.createDirectories(file.getParent());
+        return file;
+    }
+}
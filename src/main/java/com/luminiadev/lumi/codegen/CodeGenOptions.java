@@ -0,0 +1,61 @@
+package com.luminiadev.lumi.codegen;
+
+import java.nio.file.Path;
+
+/**
+ * Command line options of the code generator.
+ *
+ * @param compileJar     whether generated sources should also be compiled and packaged into a jar
+ * @param accessProfile  optional JSON file with identifier access counts captured from a running server
+ * @param instrumented   whether registry lookups should be generated with hit/miss counters
+ * @param missSampleRate sample one of this many missed lookup keys, 0 disables sampling
+ * @param customData     optional directory with server-specific items, blocks and tags merged into vanilla data
+ * @param dataDir        optional directory overriding the bundled data files, laid out like {@code resources/data}
+ * @param itemOrdinals   optional JSON file with an append-only assignment of item ordinals that new items are appended to,
+ *                       without it the bundled assignment is used read-only
+ * @param outputDir      directory the generated sources are written to
+ */
+public record CodeGenOptions(boolean compileJar, Path accessProfile, boolean instrumented, int missSampleRate,
+                             Path customData, Path dataDir, Path itemOrdinals, Path outputDir) {
+
+    public static CodeGenOptions parse(String[] args) {
+        boolean compileJar = false;
+        Path accessProfile = null;
+        boolean instrumented = false;
+        int missSampleRate = 0;
+        Path customData = null;
+        Path dataDir = null;
+        Path itemOrdinals = null;
+        Path outputDir = Path.of("generated/");
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--jar" -> compileJar = true;
+                case "--profile" -> accessProfile = Path.of(requireValue(args, ++i, "--profile"));
+                case "--instrumented" -> instrumented = true;
+                case "--miss-sample-rate" -> missSampleRate = Integer.parseInt(requireValue(args, ++i, "--miss-sample-rate"));
+                case "--custom-data" -> customData = Path.of(requireValue(args, ++i, "--custom-data"));
+                case "--data-dir" -> dataDir = Path.of(requireValue(args, ++i, "--data-dir"));
+                case "--item-ordinals" -> itemOrdinals = Path.of(requireValue(args, ++i, "--item-ordinals"));
+                case "--output" -> outputDir = Path.of(requireValue(args, ++i, "--output"));
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        if (missSampleRate < 0) {
+            throw new IllegalArgumentException("Miss sample rate must not be negative");
+        }
+        if (missSampleRate > 0 && !instrumented) {
+            throw new IllegalArgumentException("--miss-sample-rate requires --instrumented");
+        }
+
+        return new CodeGenOptions(compileJar, accessProfile, instrumented, missSampleRate, customData, dataDir, itemOrdinals, outputDir);
+    }
+
+    private static String requireValue(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for option " + option);
+        }
+        return args[index];
+    }
+}
@@ -1,15 +1,38 @@
 package com.luminiadev.lumi.codegen;
 
+import com.luminiadev.lumi.codegen.compiler.RegistryJarCompiler;
+import com.luminiadev.lumi.codegen.data.CustomContent;
+import com.luminiadev.lumi.codegen.data.CustomDataUtil;
+import com.luminiadev.lumi.codegen.data.ResourceUtil;
 import com.luminiadev.lumi.codegen.generator.*;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
 public class LumiCodeGen {
 
     public static void main(String[] args) {
-        SoundEnumGen.generate();
-        ItemTypeGen.generate();
-        ItemTagsGen.generate();
-        ItemNamespaceIdGen.generate();
-        BlockTypeGen.generate();
-        BlockTagsGen.generate();
+        CodeGenOptions options = CodeGenOptions.parse(args);
+        ResourceUtil.setDataDirectory(options.dataDir());
+        CustomContent customContent = CustomDataUtil.getCustomContent(options.customData());
+
+        List<Path> sources = new ArrayList<>();
+        sources.addAll(SoundEnumGen.generate(options));
+        sources.addAll(BiomeMusicGen.generate(options));
+        sources.addAll(ItemTypeGen.generate(options, customContent));
+        sources.addAll(ItemTagsGen.generate(options, customContent));
+        sources.addAll(ItemNamespaceIdGen.generate(options, customContent));
+        sources.addAll(BlockTypeGen.generate(options, customContent));
+        sources.addAll(BlockTagsGen.generate(options, customContent));
+        if (options.instrumented()) {
+            sources.addAll(RegistryMetricsGen.generate(options));
+        }
+
+        if (options.compileJar()) {
+            String version = System.getProperty("lumi.codegen.version", "dev");
+            Path jarPath = RegistryJarCompiler.compile(options.outputDir(), sources, Path.of("generated-jar/"), version);
+            System.out.println("Compiled generated classes into " + jarPath);
+        }
     }
 }
@@ -0,0 +1,156 @@
+package com.luminiadev.lumi.codegen.compiler;
+
+import lombok.SneakyThrows;
+
+import javax.tools.*;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+
+/**
+ * Compiles generated sources in-process against the Lumi API from the current classpath
+ * and packages the resulting classes into a versioned jar.
+ */
+public class RegistryJarCompiler {
+    private static final String JAR_NAME = "lumi-registries";
+    // Java release Lumi is built for
+    private static final String RELEASE = "21";
+    // Entry times are stored as local DOS time, so the same local date keeps the jar byte-identical on every machine
+    private static final long ENTRY_TIME = LocalDateTime.of(1980, 2, 1, 0, 0)
+            .atZone(ZoneId.systemDefault())
+            .toInstant()
+            .toEpochMilli();
+
+    /**
+     * Compiles exactly the given sources, written by the generators of this run below {@code sourceDir},
+     * so unrelated files in the output directory never end up in the jar.
+     */
+    @SneakyThrows
+    public static Path compile(Path sourceDir, List<Path> generatedSources, Path outputDir, String version) {
+        if (generatedSources.isEmpty()) {
+            throw new IllegalStateException("No generated sources to compile");
+        }
+        List<Path> sources = generatedSources.stream()
+                .sorted()
+                .collect(Collectors.toList());
+
+        Map<String, byte[]> classes = compileSources(sources);
+        String contentHash = computeContentHash(sourceDir, sources);
+
+        Files.createDirectories(outputDir);
+        Path jarPath = outputDir.resolve(JAR_NAME + "-" + version + ".jar");
+        writeJar(jarPath, classes, version, contentHash);
+        // Checksum of the jar itself in sha256sum format, the source hash is only in the manifest
+        String jarHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(jarPath)));
+        Files.writeString(outputDir.resolve(jarPath.getFileName() + ".sha256"), jarHash + "  " + jarPath.getFileName() + "\n");
+        return jarPath;
+    }
+
+    @SneakyThrows
+    private static Map<String, byte[]> compileSources(List<Path> sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("Java compiler is not available, run the generator on a JDK");
+        }
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Map<String, ByteArrayOutputStream> outputs = new TreeMap<>();
+
+        try (StandardJavaFileManager standardManager = compiler.getStandardFileManager(diagnostics, Locale.ROOT, null);
+             JavaFileManager fileManager = new InMemoryFileManager(standardManager, outputs)) {
+            List<String> options = List.of(
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-encoding", "UTF-8",
+                    "--release", RELEASE,
+                    // Lombok is on the classpath, but generated sources need no annotation processing
+                    "-proc:none",
+                    "-nowarn"
+            );
+            boolean success = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    standardManager.getJavaFileObjectsFromPaths(sources)).call();
+
+            if (!success) {
+                String errors = diagnostics.getDiagnostics().stream()
+                        .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                        .map(Object::toString)
+                        .collect(Collectors.joining("\n"));
+                throw new IllegalStateException("Failed to compile generated sources:\n" + errors);
+            }
+        }
+
+        Map<String, byte[]> classes = new TreeMap<>();
+        outputs.forEach((name, output) -> classes.put(name, output.toByteArray()));
+        return classes;
+    }
+
+    @SneakyThrows
+    private static String computeContentHash(Path sourceDir, List<Path> sources) {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        for (Path source : sources) {
+            digest.update(sourceDir.relativize(source).toString().replace('\\', '/').getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(Files.readAllBytes(source));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    @SneakyThrows
+    private static void writeJar(Path jarPath, Map<String, byte[]> classes, String version, String contentHash) {
+        Manifest manifest = new Manifest();
+        Attributes attributes = manifest.getMainAttributes();
+        attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        attributes.put(Attributes.Name.IMPLEMENTATION_TITLE, JAR_NAME);
+        attributes.put(Attributes.Name.IMPLEMENTATION_VERSION, version);
+        attributes.putValue("Content-Hash", contentHash);
+
+        try (JarOutputStream jar = new JarOutputStream(Files.newOutputStream(jarPath))) {
+            JarEntry manifestEntry = new JarEntry("META-INF/MANIFEST.MF");
+            manifestEntry.setTime(ENTRY_TIME);
+            jar.putNextEntry(manifestEntry);
+            manifest.write(jar);
+            jar.closeEntry();
+
+            for (Map.Entry<String, byte[]> entry : classes.entrySet()) {
+                JarEntry classEntry = new JarEntry(entry.getKey().replace('.', '/') + ".class");
+                classEntry.setTime(ENTRY_TIME);
+                jar.putNextEntry(classEntry);
+                jar.write(entry.getValue());
+                jar.closeEntry();
+            }
+        }
+    }
+
+    private static class InMemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<String, ByteArrayOutputStream> outputs;
+
+        private InMemoryFileManager(StandardJavaFileManager fileManager, Map<String, ByteArrayOutputStream> outputs) {
+            super(fileManager);
+            this.outputs = outputs;
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) {
+            URI uri = URI.create("mem:///" + className.replace('.', '/') + kind.extension);
+            return new SimpleJavaFileObject(uri, kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    ByteArrayOutputStream output = new ByteArrayOutputStream();
+                    outputs.put(className, output);
+                    return output;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.luminiadev.lumi.codegen.data;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Server-specific content merged into the generated registries.
+ *
+ * @param items     custom item identifiers mapped to their assigned runtime ids
+ * @param blocks    custom block identifiers mapped to the assigned runtime ids of their items
+ * @param itemTags  item tag names mapped to the custom members of the tag
+ * @param blockTags block tag names mapped to the custom members of the tag
+ */
+public record CustomContent(Map<String, Integer> items, Map<String, Integer> blocks,
+                            Map<String, Set<String>> itemTags, Map<String, Set<String>> blockTags) {
+
+    public static CustomContent empty() {
+        return new CustomContent(Map.of(), Map.of(), Map.of(), Map.of());
+    }
+}
@@ -0,0 +1,210 @@
+package com.luminiadev.lumi.codegen.data;
+
+import com.google.gson.*;
+import com.google.gson.reflect.TypeToken;
+import lombok.SneakyThrows;
+import lombok.experimental.UtilityClass;
+
+import javax.lang.model.SourceVersion;
+import java.io.FileNotFoundException;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Loads server-specific content from a directory that may contain:
+ * <ul>
+ *     <li>{@code custom_items.json} and {@code custom_blocks.json} in the {@code item_palette.json} format,
+ *     using {@code items} and {@code blocks} arrays, where {@code id} is optional</li>
+ *     <li>{@code custom_item_tags.json} and {@code custom_block_tags.json} in the kaooot tags format</li>
+ * </ul>
+ * Missing runtime ids are assigned in identifier order, above the vanilla ids for items
+ * and below them for blocks, so the result is the same for the same input.
+ * Custom identifiers and tag names must match {@code namespace:name}, where the name is a valid
+ * lowercase Java identifier, because it becomes the name of the generated constant.
+ */
+@UtilityClass
+public class CustomDataUtil {
+
+    private static final Gson GSON = new Gson();
+    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[a-z0-9_.-]+:[a-z_][a-z0-9_]*");
+
+    @SneakyThrows
+    public CustomContent getCustomContent(Path directory) {
+        if (directory == null) {
+            return CustomContent.empty();
+        }
+        if (!Files.isDirectory(directory)) {
+            throw new FileNotFoundException("Custom data directory " + directory + " does not exist");
+        }
+
+        Map<String, Integer> vanillaItems = new HashMap<>(KaoootDataUtil.getItemPalette());
+        vanillaItems.putAll(GenericDataUtil.getRuntimeItemIds("data/cloudburst/runtime_item_states.json"));
+
+        Map<String, Integer> items = readPalette(directory.resolve("custom_items.json"), "items");
+        Map<String, Integer> blocks = readPalette(directory.resolve("custom_blocks.json"), "blocks");
+        Map<String, Set<String>> itemTags = readTags(directory.resolve("custom_item_tags.json"));
+        Map<String, Set<String>> blockTags = readTags(directory.resolve("custom_block_tags.json"));
+
+        validateIdentifiers(vanillaItems.keySet(), items, blocks);
+        assignRuntimeIds(vanillaItems, items, blocks);
+
+        // Tag members must be identifiers the generated ItemTypes and BlockTypes actually register
+        Set<String> knownItems = getVanillaItemTypes();
+        knownItems.addAll(items.keySet());
+        knownItems.addAll(blocks.keySet());
+        Set<String> knownBlocks = getVanillaBlockTypes();
+        knownBlocks.addAll(blocks.keySet());
+
+        validateTags(itemTags, KaoootDataUtil.getVanillaItemTags().keySet(), knownItems, "Item");
+        validateTags(blockTags, KaoootDataUtil.getVanillaBlockTags().keySet(), knownBlocks, "Block");
+
+        return new CustomContent(items, blocks, itemTags, blockTags);
+    }
+
+    /**
+     * Returns the vanilla identifiers registered in {@code ItemTypes}, like {@code ItemTypeGen} does.
+     */
+    private static Set<String> getVanillaItemTypes() {
+        return new HashSet<>(GenericDataUtil.getRuntimeItemIds("data/cloudburst/runtime_item_states.json").keySet());
+    }
+
+    /**
+     * Returns the vanilla identifiers registered in {@code BlockTypes}, like {@code BlockTypeGen} does,
+     * with {@code minecraft:item.} aliases registered under their block name.
+     */
+    private static Set<String> getVanillaBlockTypes() {
+        Map<String, Integer> legacyBlockIds = GenericDataUtil.getLegacyBlockIds("data/cloudburst/vanilla_palette.nbt");
+        Map<String, Integer> internalItemIds = GenericDataUtil.getLegacyItemIds("data/internal/legacy_item_ids.json");
+        return KaoootDataUtil.getItemPalette().keySet().stream()
+                .filter(identifier -> legacyBlockIds.containsKey(identifier) || internalItemIds.containsKey(identifier))
+                .map(identifier -> identifier.replace("item.", ""))
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    @SneakyThrows
+    private static Map<String, Integer> readPalette(Path path, String arrayName) {
+        Map<String, Integer> entries = new HashMap<>();
+        if (!Files.exists(path)) {
+            return entries;
+        }
+
+        try (var reader = Files.newBufferedReader(path)) {
+            JsonArray array = GSON.fromJson(reader, JsonObject.class).getAsJsonArray(arrayName);
+            for (JsonElement element : array) {
+                JsonObject obj = element.getAsJsonObject();
+                String name = obj.get("name").getAsString();
+                Integer id = obj.has("id") ? obj.get("id").getAsInt() : null;
+                if (entries.containsKey(name)) {
+                    throw new IllegalArgumentException(name + " is declared twice in " + path);
+                }
+                entries.put(name, id);
+            }
+        }
+        return entries;
+    }
+
+    @SneakyThrows
+    private static Map<String, Set<String>> readTags(Path path) {
+        if (!Files.exists(path)) {
+            return new HashMap<>();
+        }
+
+        try (var reader = Files.newBufferedReader(path)) {
+            Type type = new TypeToken<Map<String, Set<String>>>() {
+            }.getType();
+            return GSON.fromJson(reader, type);
+        }
+    }
+
+    private static void validateIdentifiers(Set<String> vanillaItems, Map<String, Integer> items, Map<String, Integer> blocks) {
+        Map<String, String> constantNames = new HashMap<>();
+        constantNames.put("COUNT", "ItemNamespaceOrdinal.COUNT");
+        for (String identifier : vanillaItems) {
+            constantNames.put(toConstantName(identifier.replace("item.", "")), identifier);
+        }
+
+        List<String> customIdentifiers = new ArrayList<>(items.keySet());
+        customIdentifiers.addAll(blocks.keySet());
+        for (String identifier : customIdentifiers) {
+            checkIdentifier(identifier, "Custom content");
+            if (vanillaItems.contains(identifier)) {
+                throw new IllegalArgumentException("Custom content " + identifier + " overrides vanilla content");
+            }
+            if (items.containsKey(identifier) && blocks.containsKey(identifier)) {
+                throw new IllegalArgumentException(identifier + " is declared both as custom item and custom block");
+            }
+            String clash = constantNames.putIfAbsent(toConstantName(identifier), identifier);
+            if (clash != null) {
+                throw new IllegalArgumentException("Custom content " + identifier + " has the same constant name as " + clash);
+            }
+        }
+    }
+
+    private static void assignRuntimeIds(Map<String, Integer> vanillaItems, Map<String, Integer> items, Map<String, Integer> blocks) {
+        Set<Integer> usedIds = new HashSet<>(vanillaItems.values());
+        List<Map.Entry<String, Integer>> declared = new ArrayList<>(items.entrySet());
+        declared.addAll(blocks.entrySet());
+        for (Map.Entry<String, Integer> entry : declared) {
+            if (entry.getValue() != null && !usedIds.add(entry.getValue())) {
+                throw new IllegalArgumentException("Runtime id " + entry.getValue() + " of " + entry.getKey() + " is already in use");
+            }
+        }
+
+        int nextItemId = usedIds.stream().mapToInt(Integer::intValue).max().orElse(0) + 1;
+        for (String identifier : unassigned(items)) {
+            items.put(identifier, nextItemId++);
+        }
+
+        int nextBlockId = usedIds.stream().mapToInt(Integer::intValue).min().orElse(0) - 1;
+        for (String identifier : unassigned(blocks)) {
+            blocks.put(identifier, nextBlockId--);
+        }
+    }
+
+    private static List<String> unassigned(Map<String, Integer> entries) {
+        return entries.entrySet().stream()
+                .filter(entry -> entry.getValue() == null)
+                .map(Map.Entry::getKey)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static void validateTags(Map<String, Set<String>> tags, Set<String> vanillaTags, Set<String> knownMembers, String kind) {
+        Map<String, String> constantNames = new HashMap<>();
+        for (String tag : vanillaTags) {
+            constantNames.put(toConstantName(tag), tag);
+        }
+
+        for (Map.Entry<String, Set<String>> entry : tags.entrySet()) {
+            String tag = entry.getKey();
+            if (!vanillaTags.contains(tag)) {
+                checkIdentifier(tag, kind + " tag");
+            }
+            String clash = constantNames.putIfAbsent(toConstantName(tag), tag);
+            if (clash != null && !clash.equals(tag)) {
+                throw new IllegalArgumentException(kind + " tag " + tag + " has the same constant name as " + clash);
+            }
+            for (String member : entry.getValue()) {
+                if (!knownMembers.contains(member)) {
+                    throw new IllegalArgumentException(kind + " tag " + tag + " contains unknown member " + member);
+                }
+            }
+        }
+    }
+
+    private static void checkIdentifier(String identifier, String kind) {
+        // SourceVersion also rejects names that are reserved in Java, such as a single underscore
+        if (!IDENTIFIER_PATTERN.matcher(identifier).matches() || !SourceVersion.isName(toConstantName(identifier))) {
+            throw new IllegalArgumentException(kind + " identifier " + identifier
+                    + " is invalid, expected namespace:name where name matches [a-z_][a-z0-9_]*");
+        }
+    }
+
+    private static String toConstantName(String identifier) {
+        return identifier.split(":")[1].toUpperCase();
+    }
+}
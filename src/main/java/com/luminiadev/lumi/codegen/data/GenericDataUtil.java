@@ -2,8 +2,6 @@ package com.luminiadev.lumi.codegen.data;
 
 import com.google.gson.*;
 import com.google.gson.reflect.TypeToken;
-import com.luminiadev.lumi.codegen.generator.BlockTypeGen;
-import com.luminiadev.lumi.codegen.generator.SoundEnumGen;
 import lombok.SneakyThrows;
 import lombok.experimental.UtilityClass;
 import org.cloudburstmc.nbt.NbtMap;
@@ -23,10 +21,11 @@ import java.util.*;
 public class GenericDataUtil {
 
     private static final Gson GSON = new Gson();
+    private static final Gson PRETTY_GSON = new GsonBuilder().setPrettyPrinting().create();
 
     @SneakyThrows
     public Map<String, Integer> getLegacyItemIds(String path) {
-        var inputStream = BlockTypeGen.class.getClassLoader().getResourceAsStream(path);
+        var inputStream = ResourceUtil.open(path);
         if (inputStream != null) {
             try (var reader = new InputStreamReader(inputStream)) {
                 Type type = new TypeToken<Map<String, Integer>>() {
@@ -51,7 +50,7 @@ public class GenericDataUtil {
 
     @SneakyThrows
     public Map<String, Integer> getRuntimeItemIds(String path) {
-        var inputStream = BlockTypeGen.class.getClassLoader().getResourceAsStream(path);
+        var inputStream = ResourceUtil.open(path);
         if (inputStream != null) {
             try (var reader = new InputStreamReader(inputStream)) {
                 Map<String, Integer> result = new HashMap<>();
@@ -74,7 +73,7 @@ public class GenericDataUtil {
 
     @SneakyThrows
     public Set<String> getSoundNames() {
-        var inputStream = SoundEnumGen.class.getClassLoader().getResourceAsStream("data/pack/sound_definitions.json");
+        var inputStream = ResourceUtil.open("data/pack/sound_definitions.json");
         if (inputStream != null) {
             try (var reader = new InputStreamReader(inputStream)) {
                 return JsonParser.parseReader(reader)
@@ -87,23 +86,80 @@ public class GenericDataUtil {
         return new HashSet<>();
     }
 
-    @SneakyThrows
     public Set<String> getMusicNames() {
-        var inputStream = SoundEnumGen.class.getClassLoader().getResourceAsStream("data/pack/music_definitions.json");
+        var musicNames = new HashSet<String>();
+        getMusicDefinitions().values().forEach(definition -> musicNames.add(definition.eventName()));
+        return musicNames;
+    }
+
+    @SneakyThrows
+    public Map<String, MusicDefinition> getMusicDefinitions() {
+        var inputStream = ResourceUtil.open("data/pack/music_definitions.json");
         if (inputStream != null) {
             try (var reader = new InputStreamReader(inputStream)) {
-                var musicNames = new HashSet<String>();
-                JsonParser.parseReader(reader).getAsJsonObject().asMap().values().forEach(v -> {
-                    musicNames.add(v.getAsJsonObject().get("event_name").getAsString());
+                var definitions = new HashMap<String, MusicDefinition>();
+                JsonParser.parseReader(reader).getAsJsonObject().asMap().forEach((biome, v) -> {
+                    JsonObject obj = v.getAsJsonObject();
+                    definitions.put(biome, new MusicDefinition(
+                            obj.get("event_name").getAsString(),
+                            obj.get("min_delay").getAsInt(),
+                            obj.get("max_delay").getAsInt()
+                    ));
                 });
-                return musicNames;
+                return definitions;
             }
         }
-        return new HashSet<>();
+        return new HashMap<>();
+    }
+
+    @SneakyThrows
+    public Map<String, Long> getAccessProfile(Path path) {
+        if (path == null) {
+            return new HashMap<>();
+        }
+        if (!Files.exists(path)) {
+            throw new FileNotFoundException("Access profile " + path + " does not exist");
+        }
+        try (var reader = Files.newBufferedReader(path)) {
+            Type type = new TypeToken<Map<String, Long>>() {
+            }.getType();
+            Map<String, Long> profile = GSON.fromJson(reader, type);
+            return profile != null ? profile : new HashMap<>();
+        }
+    }
+
+    @SneakyThrows
+    public List<String> getItemOrdinals(String path) {
+        var inputStream = ResourceUtil.open(path);
+        if (inputStream != null) {
+            try (var reader = new InputStreamReader(inputStream)) {
+                Type type = new TypeToken<List<String>>() {
+                }.getType();
+                List<String> ordinals = GSON.fromJson(reader, type);
+                return ordinals != null ? ordinals : new ArrayList<>();
+            }
+        }
+        return new ArrayList<>();
+    }
+
+    @SneakyThrows
+    public List<String> getItemOrdinals(Path path) {
+        try (var reader = Files.newBufferedReader(path)) {
+            Type type = new TypeToken<List<String>>() {
+            }.getType();
+            List<String> ordinals = GSON.fromJson(reader, type);
+            return ordinals != null ? ordinals : new ArrayList<>();
+        }
+    }
+
+    @SneakyThrows
+    public void saveItemOrdinals(Path path, List<String> ordinals) {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Files.writeString(path, PRETTY_GSON.toJson(ordinals) + "\n");
     }
 
     private static List<NbtMap> loadVanillaPalette(String path) {
-        var inputStream = SoundEnumGen.class.getClassLoader().getResourceAsStream(path);
+        var inputStream = ResourceUtil.open(path);
         if (inputStream != null) {
             try {
                 return ((NbtMap) NbtUtils.createGZIPReader(inputStream).readTag()).getList("blocks", NbtType.COMPOUND);
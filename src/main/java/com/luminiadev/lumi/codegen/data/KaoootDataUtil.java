@@ -5,9 +5,6 @@ import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.luminiadev.lumi.codegen.generator.BlockTagsGen;
-import com.luminiadev.lumi.codegen.generator.BlockTypeGen;
-import com.luminiadev.lumi.codegen.generator.ItemTagsGen;
 import lombok.SneakyThrows;
 import lombok.experimental.UtilityClass;
 
@@ -23,7 +20,7 @@ public class KaoootDataUtil {
 
     @SneakyThrows
     public Map<String, Set<String>> getVanillaBlockTags() {
-        var inputStream = BlockTagsGen.class.getClassLoader().getResourceAsStream("data/kaooot/block_tags.json");
+        var inputStream = ResourceUtil.open("data/kaooot/block_tags.json");
         if (inputStream != null) {
             try (var reader = new InputStreamReader(inputStream)) {
                 var type = new TypeToken<Map<String, Set<String>>>() {
@@ -36,7 +33,7 @@ public class KaoootDataUtil {
 
     @SneakyThrows
     public Map<String, Set<String>> getVanillaItemTags() {
-        var inputStream = ItemTagsGen.class.getClassLoader().getResourceAsStream("data/kaooot/item_tags.json");
+        var inputStream = ResourceUtil.open("data/kaooot/item_tags.json");
         if (inputStream != null) {
             try (var reader = new InputStreamReader(inputStream)) {
                 var type = new TypeToken<Map<String, Set<String>>>() {
@@ -49,7 +46,7 @@ public class KaoootDataUtil {
 
     @SneakyThrows
     public Map<String, Integer> getItemPalette() {
-        var inputStream = BlockTypeGen.class.getClassLoader().getResourceAsStream("data/kaooot/item_palette.json");
+        var inputStream = ResourceUtil.open("data/kaooot/item_palette.json");
         if (inputStream != null) {
             try (var reader = new InputStreamReader(inputStream)) {
                 JsonObject root = GSON.fromJson(reader, JsonObject.class);
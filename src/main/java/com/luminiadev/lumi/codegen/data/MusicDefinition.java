@@ -0,0 +1,11 @@
+package com.luminiadev.lumi.codegen.data;
+
+/**
+ * Music entry of a biome from {@code music_definitions.json}.
+ *
+ * @param eventName sound event played as music
+ * @param minDelay  minimal delay between two music tracks in seconds
+ * @param maxDelay  maximal delay between two music tracks in seconds
+ */
+public record MusicDefinition(String eventName, int minDelay, int maxDelay) {
+}
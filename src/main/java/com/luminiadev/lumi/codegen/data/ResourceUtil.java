@@ -0,0 +1,38 @@
+package com.luminiadev.lumi.codegen.data;
+
+import lombok.SneakyThrows;
+import lombok.experimental.UtilityClass;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Opens data files either from the bundled resources or from an override directory.
+ */
+@UtilityClass
+public class ResourceUtil {
+
+    private static final String DATA_PREFIX = "data/";
+
+    private static Path dataDirectory;
+
+    /**
+     * Sets the directory that overrides the bundled data files, laid out like {@code resources/data}.
+     * Files missing from it are still read from the bundled resources. Pass null to use only the bundled data.
+     */
+    public void setDataDirectory(Path directory) {
+        dataDirectory = directory;
+    }
+
+    @SneakyThrows
+    public InputStream open(String path) {
+        if (dataDirectory != null && path.startsWith(DATA_PREFIX)) {
+            Path file = dataDirectory.resolve(path.substring(DATA_PREFIX.length()));
+            if (Files.exists(file)) {
+                return Files.newInputStream(file);
+            }
+        }
+        return ResourceUtil.class.getClassLoader().getResourceAsStream(path);
+    }
+}
@@ -0,0 +1,172 @@
+package com.luminiadev.lumi.codegen.generator;
+
+import com.luminiadev.lumi.codegen.CodeGenOptions;
+import com.luminiadev.lumi.codegen.data.GenericDataUtil;
+import com.luminiadev.lumi.codegen.data.MusicDefinition;
+import com.palantir.javapoet.*;
+import lombok.SneakyThrows;
+
+import javax.lang.model.element.Modifier;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class BiomeMusicGen {
+    private static final ClassName SOUND_CLASS = ClassName.get("cn.nukkit.level", "Sound");
+
+    @SneakyThrows
+    public static List<Path> generate(CodeGenOptions options) {
+        List<BiomeMusicEntry> entries = prepareBiomeMusicEntries();
+
+        TypeSpec biomeMusicClass = TypeSpec.classBuilder("BiomeMusic")
+                .addJavadoc("This class is generated automatically, do not change it manually.")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addFields(createBiomeConstants(entries))
+                .addFields(createTableFields(entries))
+                .addStaticBlock(createTableInitializer())
+                .addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build())
+                .addMethods(createUtilityMethods())
+                .build();
+
+        JavaFile javaFile = JavaFile.builder("cn.nukkit.level", biomeMusicClass)
+                .indent("    ")
+                .skipJavaLangImports(true)
+                .build();
+        return List.of(javaFile.writeToPath(options.outputDir()));
+    }
+
+    private static List<BiomeMusicEntry> prepareBiomeMusicEntries() {
+        List<String> sounds = SoundEnumGen.prepareSounds();
+        Map<String, Integer> soundOrdinals = new HashMap<>(sounds.size() * 2);
+        for (int ordinal = 0; ordinal < sounds.size(); ordinal++) {
+            soundOrdinals.put(sounds.get(ordinal), ordinal);
+        }
+        Map<String, MusicDefinition> definitions = GenericDataUtil.getMusicDefinitions();
+
+        return definitions.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> {
+                    MusicDefinition definition = entry.getValue();
+                    Integer soundOrdinal = soundOrdinals.get(definition.eventName());
+                    if (soundOrdinal == null) {
+                        throw new IllegalStateException("Music " + definition.eventName() + " of biome " + entry.getKey() + " is not a sound");
+                    }
+                    return new BiomeMusicEntry(entry.getKey(), soundOrdinal, definition.minDelay(), definition.maxDelay());
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static List<FieldSpec> createBiomeConstants(List<BiomeMusicEntry> entries) {
+        List<FieldSpec> fields = new ArrayList<>();
+        for (int index = 0; index < entries.size(); index++) {
+            fields.add(FieldSpec.builder(
+                            TypeName.INT,
+                            entries.get(index).biome.toUpperCase(),
+                            Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$L", index)
+                    .build());
+        }
+        fields.add(FieldSpec.builder(
+                        TypeName.INT,
+                        "COUNT",
+                        Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$L", entries.size())
+                .build());
+        return fields;
+    }
+
+    private static List<FieldSpec> createTableFields(List<BiomeMusicEntry> entries) {
+        return List.of(
+                FieldSpec.builder(ArrayTypeName.of(String.class), "BIOME_NAMES", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer(createArrayInitializer(entries, entry -> CodeBlock.of("$S", entry.biome)))
+                        .build(),
+                FieldSpec.builder(ArrayTypeName.of(TypeName.INT), "SOUND_ORDINALS", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer(createArrayInitializer(entries, entry -> CodeBlock.of("$L", entry.soundOrdinal)))
+                        .build(),
+                FieldSpec.builder(ArrayTypeName.of(TypeName.INT), "MIN_DELAYS", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer(createArrayInitializer(entries, entry -> CodeBlock.of("$L", entry.minDelay)))
+                        .build(),
+                FieldSpec.builder(ArrayTypeName.of(TypeName.INT), "MAX_DELAYS", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer(createArrayInitializer(entries, entry -> CodeBlock.of("$L", entry.maxDelay)))
+                        .build(),
+                FieldSpec.builder(ArrayTypeName.of(SOUND_CLASS), "SOUNDS", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("$T.values()", SOUND_CLASS)
+                        .build(),
+                FieldSpec.builder(
+                                ParameterizedTypeName.get(
+                                        ClassName.get("it.unimi.dsi.fastutil.objects", "Object2IntMap"),
+                                        ClassName.get(String.class)
+                                ),
+                                "NAME_TO_BIOME",
+                                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new $T<>(COUNT)", ClassName.get("it.unimi.dsi.fastutil.objects", "Object2IntOpenHashMap"))
+                        .build()
+        );
+    }
+
+    private static CodeBlock createArrayInitializer(List<BiomeMusicEntry> entries, Function<BiomeMusicEntry, CodeBlock> value) {
+        CodeBlock.Builder builder = CodeBlock.builder().add("{\n").indent();
+        for (BiomeMusicEntry entry : entries) {
+            builder.add("$L,\n", value.apply(entry));
+        }
+        return builder.unindent().add("}").build();
+    }
+
+    private static CodeBlock createTableInitializer() {
+        return CodeBlock.builder()
+                .addStatement("NAME_TO_BIOME.defaultReturnValue(-1)")
+                .beginControlFlow("for (int biome = 0; biome < COUNT; biome++)")
+                .addStatement("NAME_TO_BIOME.put(BIOME_NAMES[biome], biome)")
+                .endControlFlow()
+                .build();
+    }
+
+    private static List<MethodSpec> createUtilityMethods() {
+        return List.of(
+                MethodSpec.methodBuilder("getBiome")
+                        .addJavadoc("Returns the index of the biome with the given name or -1 if it has no music.")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .returns(TypeName.INT)
+                        .addParameter(String.class, "biomeName")
+                        .addStatement("return NAME_TO_BIOME.getInt(biomeName)")
+                        .build(),
+                MethodSpec.methodBuilder("getBiomeName")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .returns(String.class)
+                        .addParameter(TypeName.INT, "biome")
+                        .addStatement("return BIOME_NAMES[biome]")
+                        .build(),
+                MethodSpec.methodBuilder("getSoundOrdinal")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .returns(TypeName.INT)
+                        .addParameter(TypeName.INT, "biome")
+                        .addStatement("return SOUND_ORDINALS[biome]")
+                        .build(),
+                MethodSpec.methodBuilder("getSound")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .returns(SOUND_CLASS)
+                        .addParameter(TypeName.INT, "biome")
+                        .addStatement("return SOUNDS[SOUND_ORDINALS[biome]]")
+                        .build(),
+                MethodSpec.methodBuilder("getMinDelay")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .returns(TypeName.INT)
+                        .addParameter(TypeName.INT, "biome")
+                        .addStatement("return MIN_DELAYS[biome]")
+                        .build(),
+                MethodSpec.methodBuilder("getMaxDelay")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .returns(TypeName.INT)
+                        .addParameter(TypeName.INT, "biome")
+                        .addStatement("return MAX_DELAYS[biome]")
+                        .build()
+        );
+    }
+
+    private record BiomeMusicEntry(String biome, int soundOrdinal, int minDelay, int maxDelay) {
+    }
+}
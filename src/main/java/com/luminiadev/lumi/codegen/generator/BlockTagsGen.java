@@ -1,5 +1,7 @@
 package com.luminiadev.lumi.codegen.generator;
 
+import com.luminiadev.lumi.codegen.CodeGenOptions;
+import com.luminiadev.lumi.codegen.data.CustomContent;
 import com.luminiadev.lumi.codegen.data.KaoootDataUtil;
 import com.palantir.javapoet.*;
 import lombok.SneakyThrows;
@@ -10,33 +12,42 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class BlockTagsGen {
     private static final ClassName BLOCK_TAG_CLASS = ClassName.get("cn.nukkit.block.material.tags", "BlockTag");
     private static final ClassName LAZY_BLOCK_TAG_CLASS = ClassName.get("cn.nukkit.block.material.tags.impl", "LazyBlockTag");
+    private static final ClassName BLOCK_TYPE_CLASS = ClassName.get("cn.nukkit.block.material", "BlockType");
+    private static final ClassName BLOCK_TYPES_CLASS = ClassName.get("cn.nukkit.block.material", "BlockTypes");
+    private static final ClassName CUSTOM_BLOCK_TAG_CLASS = ClassName.get("cn.nukkit.block.material.tags", "BlockTags", "CustomBlockTag");
 
     @SneakyThrows
-    public static void generate() {
-        List<String> blockTags = prepareBlockTags();
+    public static List<Path> generate(CodeGenOptions options, CustomContent customContent) {
+        Map<String, Set<String>> customTags = customContent.blockTags();
+        List<String> blockTags = prepareBlockTags(customTags);
 
-        TypeSpec blockTagsClass = TypeSpec.classBuilder("BlockTags")
+        TypeSpec.Builder blockTagsClass = TypeSpec.classBuilder("BlockTags")
                 .addJavadoc("This class is generated automatically, do not change it manually.")
                 .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
                 .addFields(createMapFields())
-                .addFields(createTagConstants(blockTags))
-                .addMethods(createUtilityMethods())
-                .build();
+                .addFields(createLookupCounterFields(options.instrumented()))
+                .addFields(createTagConstants(blockTags, customTags))
+                .addMethods(createUtilityMethods(options.instrumented()));
+        if (!customTags.isEmpty()) {
+            blockTagsClass.addType(createCustomBlockTag());
+        }
 
-        JavaFile javaFile = JavaFile.builder("cn.nukkit.block.material.tags", blockTagsClass)
+        JavaFile javaFile = JavaFile.builder("cn.nukkit.block.material.tags", blockTagsClass.build())
                 .indent("    ")
                 .skipJavaLangImports(true)
                 .build();
-        javaFile.writeTo(Path.of("generated/"));
+        return List.of(javaFile.writeToPath(options.outputDir()));
     }
 
-    private static List<String> prepareBlockTags() {
+    private static List<String> prepareBlockTags(Map<String, Set<String>> customTags) {
         Map<String, Set<String>> vanillaBlockTags = KaoootDataUtil.getVanillaBlockTags();
-        return vanillaBlockTags.keySet().stream()
+        return Stream.concat(vanillaBlockTags.keySet().stream(), customTags.keySet().stream())
+                .distinct()
                 .sorted()
                 .collect(Collectors.toList());
     }
@@ -69,19 +80,71 @@ public class BlockTagsGen {
         );
     }
 
-    private static List<FieldSpec> createTagConstants(List<String> blockTags) {
+    private static List<FieldSpec> createTagConstants(List<String> blockTags, Map<String, Set<String>> customTags) {
         return blockTags.stream()
                 .map(blockTag -> {
                     String name = blockTag.split(":")[1].toUpperCase();
+                    Set<String> customMembers = customTags.get(blockTag);
+                    CodeBlock tag = customMembers == null
+                            ? CodeBlock.of("new $T($S)", LAZY_BLOCK_TAG_CLASS, blockTag)
+                            : CodeBlock.of("new $T($S, $L)", CUSTOM_BLOCK_TAG_CLASS, blockTag, customMembers.stream()
+                                    .sorted()
+                                    .map(identifier -> CodeBlock.of("$S", identifier))
+                                    .collect(CodeBlock.joining(", ")));
                     return FieldSpec.builder(BLOCK_TAG_CLASS, name)
                             .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
-                            .initializer("register($S, new $T($S))", blockTag, LAZY_BLOCK_TAG_CLASS, blockTag)
+                            .initializer("register($S, $L)", blockTag, tag)
                             .build();
                 })
                 .collect(Collectors.toList());
     }
 
-    private static List<MethodSpec> createUtilityMethods() {
+    /**
+     * Creates a tag that resolves its vanilla members like {@code LazyBlockTag} and adds the custom ones,
+     * so custom members are both in the tag and in {@code getTagsSet}.
+     */
+    private static TypeSpec createCustomBlockTag() {
+        TypeName blockTypeSet = ParameterizedTypeName.get(ClassName.get("java.util", "Set"), BLOCK_TYPE_CLASS);
+        return TypeSpec.classBuilder("CustomBlockTag")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .superclass(LAZY_BLOCK_TAG_CLASS)
+                .addField(FieldSpec.builder(ArrayTypeName.of(String.class), "customMembers", Modifier.PRIVATE, Modifier.FINAL).build())
+                .addField(FieldSpec.builder(blockTypeSet, "blockTypes", Modifier.PRIVATE).build())
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PRIVATE)
+                        .addParameter(String.class, "tagName")
+                        .addParameter(ArrayTypeName.of(String.class), "customMembers")
+                        .varargs()
+                        .addStatement("super(tagName)")
+                        .addStatement("this.customMembers = customMembers")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getBlockTypes")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(blockTypeSet)
+                        .beginControlFlow("if (this.blockTypes == null)")
+                        .addStatement("$T blockTypes = new $T<>(super.getBlockTypes())", blockTypeSet, ClassName.get("java.util", "HashSet"))
+                        .beginControlFlow("for ($T identifier : this.customMembers)", String.class)
+                        .addStatement("$T blockType = $T.get(identifier)", BLOCK_TYPE_CLASS, BLOCK_TYPES_CLASS)
+                        .beginControlFlow("if (blockType != null)")
+                        .addStatement("blockTypes.add(blockType)")
+                        .endControlFlow()
+                        .endControlFlow()
+                        .addStatement("this.blockTypes = $T.unmodifiableSet(blockTypes)", ClassName.get("java.util", "Collections"))
+                        .endControlFlow()
+                        .addStatement("return this.blockTypes")
+                        .build())
+                .build();
+    }
+
+    private static List<FieldSpec> createLookupCounterFields(boolean instrumented) {
+        if (!instrumented) {
+            return List.of();
+        }
+        return List.of(RegistryMetricsGen.createCounterField("GET_TAGS_SET_LOOKUPS", "BlockTags.getTagsSet"));
+    }
+
+    private static List<MethodSpec> createUtilityMethods(boolean instrumented) {
         return List.of(
                 MethodSpec.methodBuilder("register")
                         .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
@@ -106,8 +169,10 @@ public class BlockTagsGen {
                                 BLOCK_TAG_CLASS
                         ))
                         .addParameter(String.class, "identifier")
-                        .addStatement("return BLOCK_2_TAGS.getOrDefault(identifier, $T.emptySet())",
-                                ClassName.get("java.util", "Collections"))
+                        .addCode(instrumented ? createCountedTagsLookup() : CodeBlock.builder()
+                                .addStatement("return BLOCK_2_TAGS.getOrDefault(identifier, $T.emptySet())",
+                                        ClassName.get("java.util", "Collections"))
+                                .build())
                         .build(),
                 MethodSpec.methodBuilder("getTag")
                         .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
@@ -117,4 +182,19 @@ public class BlockTagsGen {
                         .build()
         );
     }
+
+    private static CodeBlock createCountedTagsLookup() {
+        return CodeBlock.builder()
+                .addStatement("$T tags = BLOCK_2_TAGS.get(identifier)", ParameterizedTypeName.get(
+                        ClassName.get("java.util", "Set"),
+                        BLOCK_TAG_CLASS
+                ))
+                .beginControlFlow("if (tags == null)")
+                .addStatement("GET_TAGS_SET_LOOKUPS.miss(identifier)")
+                .addStatement("return $T.emptySet()", ClassName.get("java.util", "Collections"))
+                .endControlFlow()
+                .addStatement("GET_TAGS_SET_LOOKUPS.hit()")
+                .addStatement("return tags")
+                .build();
+    }
 }
\ No newline at end of file
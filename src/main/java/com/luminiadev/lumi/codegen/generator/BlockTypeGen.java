@@ -1,9 +1,10 @@
 package com.luminiadev.lumi.codegen.generator;
 
+import com.luminiadev.lumi.codegen.CodeGenOptions;
+import com.luminiadev.lumi.codegen.data.CustomContent;
 import com.luminiadev.lumi.codegen.data.GenericDataUtil;
 import com.luminiadev.lumi.codegen.data.KaoootDataUtil;
 import com.palantir.javapoet.*;
-import lombok.Data;
 import lombok.NonNull;
 import lombok.SneakyThrows;
 
@@ -19,15 +20,19 @@ public class BlockTypeGen {
     private static final ClassName BLOCK_TYPE_CLASS = ClassName.get("cn.nukkit.block.material", "BlockType");
 
     @SneakyThrows
-    public static void generate() {
-        List<BlockEntry> blockEntries = prepareBlockEntries();
+    public static List<Path> generate(CodeGenOptions options, CustomContent customContent) {
+        List<BlockEntry> blockEntries = prepareBlockEntries(customContent);
+        List<BlockEntry> hotEntries = sortHotEntries(blockEntries, GenericDataUtil.getAccessProfile(options.accessProfile()));
 
         TypeSpec blockTypesClass = TypeSpec.classBuilder("BlockTypes")
                 .addJavadoc("This class is generated automatically, do not change it manually.")
                 .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
-                .addFields(createMapFields())
+                .addFields(createMapFields(blockEntries.size()))
+                .addFields(createLookupCounterFields(options.instrumented()))
+                .addFields(createHotTypeFields(hotEntries))
                 .addFields(createBlockConstants(blockEntries))
-                .addMethods(createUtilityMethods())
+                .addMethods(createUtilityMethods(options.instrumented()))
+                .addMethods(createHotTypeMethods(hotEntries))
                 .addType(createBlockTypeImpl())
                 .build();
 
@@ -35,10 +40,10 @@ public class BlockTypeGen {
                 .indent("    ")
                 .skipJavaLangImports(true)
                 .build();
-        javaFile.writeTo(Path.of("generated/"));
+        return List.of(javaFile.writeToPath(options.outputDir()));
     }
 
-    private static List<BlockEntry> prepareBlockEntries() {
+    private static List<BlockEntry> prepareBlockEntries(CustomContent customContent) {
         Map<String, Integer> itemPalette = KaoootDataUtil.getItemPalette();
         Map<String, Integer> legacyBlockIds = GenericDataUtil.getLegacyBlockIds("data/cloudburst/vanilla_palette.nbt");
         Map<String, Integer> internalItemIds = GenericDataUtil.getLegacyItemIds("data/internal/legacy_item_ids.json");
@@ -54,12 +59,22 @@ public class BlockTypeGen {
                 .collect(Collectors.toSet());
 
         blockEntries.removeIf(entry -> !entry.item && itemIds.contains(entry.identifier));
+        customContent.blocks().forEach((identifier, runtimeId) -> blockEntries.add(new BlockEntry(identifier, runtimeId, false)));
         blockEntries.sort(Comparator.naturalOrder());
 
         return blockEntries;
     }
 
-    private static List<FieldSpec> createMapFields() {
+    private static List<BlockEntry> sortHotEntries(List<BlockEntry> blockEntries, Map<String, Long> accessProfile) {
+        return blockEntries.stream()
+                .filter(entry -> accessProfile.getOrDefault(entry.registeredIdentifier(), 0L) > 0)
+                .sorted(Comparator.comparingLong((BlockEntry entry) -> accessProfile.get(entry.registeredIdentifier()))
+                        .reversed()
+                        .thenComparing(Comparator.naturalOrder()))
+                .collect(Collectors.toList());
+    }
+
+    private static List<FieldSpec> createMapFields(int expectedSize) {
         return List.of(
                 FieldSpec.builder(
                                 ParameterizedTypeName.get(
@@ -68,7 +83,7 @@ public class BlockTypeGen {
                                 ),
                                 "RUNTIME_TO_TYPE",
                                 Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
-                        .initializer("new $T<>()", ClassName.get("it.unimi.dsi.fastutil.ints", "Int2ObjectOpenHashMap"))
+                        .initializer("new $T<>($L)", ClassName.get("it.unimi.dsi.fastutil.ints", "Int2ObjectOpenHashMap"), expectedSize)
                         .build(),
                 FieldSpec.builder(
                                 ParameterizedTypeName.get(
@@ -78,7 +93,25 @@ public class BlockTypeGen {
                                 ),
                                 "ID_TO_TYPE",
                                 Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
-                        .initializer("new $T<>()", ClassName.get("it.unimi.dsi.fastutil.objects", "Object2ObjectOpenHashMap"))
+                        .initializer("new $T<>($L)", ClassName.get("it.unimi.dsi.fastutil.objects", "Object2ObjectOpenHashMap"), expectedSize)
+                        .build(),
+                FieldSpec.builder(
+                                ParameterizedTypeName.get(
+                                        ClassName.get("it.unimi.dsi.fastutil.objects", "ObjectList"),
+                                        BLOCK_TYPE_CLASS
+                                ),
+                                "INDEX_TO_TYPE",
+                                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new $T<>($L)", ClassName.get("it.unimi.dsi.fastutil.objects", "ObjectArrayList"), expectedSize)
+                        .build(),
+                FieldSpec.builder(
+                                ParameterizedTypeName.get(
+                                        ClassName.get("it.unimi.dsi.fastutil.objects", "Reference2IntMap"),
+                                        BLOCK_TYPE_CLASS
+                                ),
+                                "TYPE_TO_INDEX",
+                                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new $T<>()", ClassName.get("it.unimi.dsi.fastutil.objects", "Reference2IntOpenHashMap"))
                         .build()
         );
     }
@@ -92,20 +125,61 @@ public class BlockTypeGen {
                                     BLOCK_TYPE_CLASS,
                                     finalName,
                                     Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
-                            .initializer("register($S, $L)", entry.identifier.replace("item.", ""), entry.runtimeId)
+                            .initializer("register($S, $L)", entry.registeredIdentifier(), entry.runtimeId)
                             .build();
                 })
                 .collect(Collectors.toList());
     }
 
-    private static List<MethodSpec> createUtilityMethods() {
+    private static List<FieldSpec> createHotTypeFields(List<BlockEntry> hotEntries) {
+        if (hotEntries.isEmpty()) {
+            return List.of();
+        }
+        return List.of(FieldSpec.builder(TypeName.INT, "HOT_TYPE_COUNT", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .addJavadoc("Only exists so that {@link #registerHotTypes()} runs before the constants below are initialized.")
+                .initializer("registerHotTypes()")
+                .build());
+    }
+
+    private static List<MethodSpec> createHotTypeMethods(List<BlockEntry> hotEntries) {
+        if (hotEntries.isEmpty()) {
+            return List.of();
+        }
+
+        MethodSpec.Builder builder = MethodSpec.methodBuilder("registerHotTypes")
+                .addJavadoc("Registers the most accessed types before the constants, so they get the lowest indices and their home hash slots.")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(TypeName.INT);
+        for (BlockEntry entry : hotEntries) {
+            builder.addStatement("register($S, $L)", entry.registeredIdentifier(), entry.runtimeId);
+        }
+        return List.of(builder.addStatement("return $L", hotEntries.size()).build());
+    }
+
+    private static List<FieldSpec> createLookupCounterFields(boolean instrumented) {
+        if (!instrumented) {
+            return List.of();
+        }
+        return List.of(
+                RegistryMetricsGen.createCounterField("GET_LOOKUPS", "BlockTypes.get"),
+                RegistryMetricsGen.createCounterField("GET_FROM_RUNTIME_LOOKUPS", "BlockTypes.getFromRuntime")
+        );
+    }
+
+    private static List<MethodSpec> createUtilityMethods(boolean instrumented) {
         return List.of(
                 MethodSpec.methodBuilder("register")
                         .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
                         .returns(BLOCK_TYPE_CLASS)
                         .addParameter(String.class, "identifier")
                         .addParameter(TypeName.INT, "runtimeId")
-                        .addStatement("return register(new BlockTypeImpl(identifier, runtimeId))")
+                        .addStatement("BlockType oldType = ID_TO_TYPE.get(identifier)")
+                        .beginControlFlow("if (oldType != null)")
+                        .addComment("Keeps the runtime ID of aliases resolvable, e.g. block forms of item.* entries")
+                        .addStatement("RUNTIME_TO_TYPE.putIfAbsent(runtimeId, oldType)")
+                        .addStatement("return oldType")
+                        .endControlFlow()
+                        .addStatement("return register(new BlockTypeImpl(identifier, runtimeId, INDEX_TO_TYPE.size()))")
                         .build(),
                 MethodSpec.methodBuilder("register")
                         .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
@@ -114,6 +188,12 @@ public class BlockTypeGen {
                         .addStatement("BlockType oldType = ID_TO_TYPE.get(blockType.getIdentifier())")
                         .addStatement("RUNTIME_TO_TYPE.putIfAbsent(blockType.getRuntimeId(), blockType)")
                         .addStatement("ID_TO_TYPE.putIfAbsent(blockType.getIdentifier(), blockType)")
+                        .beginControlFlow("if (oldType == null)")
+                        .beginControlFlow("if (!(blockType instanceof BlockTypeImpl))")
+                        .addStatement("TYPE_TO_INDEX.put(blockType, INDEX_TO_TYPE.size())")
+                        .endControlFlow()
+                        .addStatement("INDEX_TO_TYPE.add(blockType)")
+                        .endControlFlow()
                         .addStatement("$T.register(blockType.getIdentifier(), blockType.getRuntimeId())",
                                 ClassName.get("cn.nukkit.item.material", "ItemTypes"))
                         .addStatement("return oldType != null ? oldType : blockType")
@@ -122,28 +202,101 @@ public class BlockTypeGen {
                         .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
                         .returns(BLOCK_TYPE_CLASS)
                         .addParameter(String.class, "identifier")
-                        .addStatement("return ID_TO_TYPE.get(identifier)")
+                        .addCode(instrumented
+                                ? RegistryMetricsGen.createCountedLookup(BLOCK_TYPE_CLASS, "ID_TO_TYPE.get(identifier)", "GET_LOOKUPS", "identifier")
+                                : CodeBlock.of("return ID_TO_TYPE.get(identifier);\n"))
                         .build(),
                 MethodSpec.methodBuilder("getFromRuntime")
                         .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
                         .returns(BLOCK_TYPE_CLASS)
                         .addParameter(TypeName.INT, "runtimeId")
-                        .addStatement("return RUNTIME_TO_TYPE.get(runtimeId)")
+                        .addCode(instrumented
+                                ? RegistryMetricsGen.createCountedLookup(BLOCK_TYPE_CLASS, "RUNTIME_TO_TYPE.get(runtimeId)", "GET_FROM_RUNTIME_LOOKUPS", "runtimeId")
+                                : CodeBlock.of("return RUNTIME_TO_TYPE.get(runtimeId);\n"))
+                        .build(),
+                MethodSpec.methodBuilder("getFromIndex")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .returns(BLOCK_TYPE_CLASS)
+                        .addParameter(TypeName.INT, "index")
+                        .addStatement("return index >= 0 && index < INDEX_TO_TYPE.size() ? INDEX_TO_TYPE.get(index) : null")
+                        .build(),
+                MethodSpec.methodBuilder("getIndex")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .returns(TypeName.INT)
+                        .addParameter(BLOCK_TYPE_CLASS, "blockType")
+                        .addStatement("return blockType instanceof BlockTypeImpl impl ? impl.getIndex() : TYPE_TO_INDEX.getOrDefault(blockType, -1)")
+                        .build(),
+                MethodSpec.methodBuilder("size")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .returns(TypeName.INT)
+                        .addStatement("return INDEX_TO_TYPE.size()")
                         .build()
         );
     }
 
     private static TypeSpec createBlockTypeImpl() {
         return TypeSpec.classBuilder("BlockTypeImpl")
-                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
                 .addSuperinterface(BLOCK_TYPE_CLASS)
-                .addAnnotation(Data.class)
                 .addField(FieldSpec.builder(String.class, "identifier", Modifier.PRIVATE, Modifier.FINAL).build())
                 .addField(FieldSpec.builder(TypeName.INT, "runtimeId", Modifier.PRIVATE, Modifier.FINAL).build())
+                .addField(FieldSpec.builder(TypeName.INT, "index", Modifier.PRIVATE, Modifier.FINAL).build())
+                .addField(FieldSpec.builder(TypeName.INT, "hash", Modifier.PRIVATE, Modifier.FINAL).build())
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PRIVATE)
+                        .addParameter(String.class, "identifier")
+                        .addParameter(TypeName.INT, "runtimeId")
+                        .addParameter(TypeName.INT, "index")
+                        .addStatement("this.identifier = identifier")
+                        .addStatement("this.runtimeId = runtimeId")
+                        .addStatement("this.index = index")
+                        .addStatement("this.hash = $T.murmurHash3(identifier.hashCode() * 31 + runtimeId)",
+                                ClassName.get("it.unimi.dsi.fastutil", "HashCommon"))
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getIdentifier")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(String.class)
+                        .addStatement("return this.identifier")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getRuntimeId")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(TypeName.INT)
+                        .addStatement("return this.runtimeId")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getIndex")
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(TypeName.INT)
+                        .addStatement("return this.index")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("equals")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(TypeName.BOOLEAN)
+                        .addParameter(Object.class, "o")
+                        .addStatement("return this == o")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("hashCode")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(TypeName.INT)
+                        .addStatement("return this.hash")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("toString")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(String.class)
+                        .addStatement("return $S + this.identifier + $S + this.runtimeId + $S", "BlockTypeImpl(identifier=", ", runtimeId=", ")")
+                        .build())
                 .build();
     }
 
     private record BlockEntry(String identifier, int runtimeId, boolean item) implements Comparable<BlockEntry> {
+        public String registeredIdentifier() {
+            return this.identifier.replace("item.", "");
+        }
+
         @Override
         public int compareTo(@NonNull BlockEntry entry) {
             return this.identifier.compareTo(entry.identifier);
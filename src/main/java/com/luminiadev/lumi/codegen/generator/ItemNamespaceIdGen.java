@@ -1,21 +1,33 @@
 package com.luminiadev.lumi.codegen.generator;
 
+import com.luminiadev.lumi.codegen.CodeGenOptions;
+import com.luminiadev.lumi.codegen.data.CustomContent;
+import com.luminiadev.lumi.codegen.data.GenericDataUtil;
 import com.luminiadev.lumi.codegen.data.KaoootDataUtil;
-import com.palantir.javapoet.FieldSpec;
-import com.palantir.javapoet.JavaFile;
-import com.palantir.javapoet.TypeSpec;
+import com.palantir.javapoet.*;
 import lombok.SneakyThrows;
 
 import javax.lang.model.element.Modifier;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class ItemNamespaceIdGen {
+    private static final String BUNDLED_ORDINALS = "data/internal/item_ordinals.json";
 
     @SneakyThrows
-    public static void generate() {
-        List<String> itemIds = prepareItemEntries();
+    public static List<Path> generate(CodeGenOptions options, CustomContent customContent) {
+        List<String> itemIds = prepareItemEntries(customContent);
+        if (options.itemOrdinals() == null && (!customContent.items().isEmpty() || !customContent.blocks().isEmpty())) {
+            // Custom items must never end up in the bundled vanilla assignment
+            throw new IllegalArgumentException("Custom items and blocks need a server-specific ordinal assignment, pass --item-ordinals <file>");
+        }
+        List<String> ordinals = assignOrdinals(itemIds, options.itemOrdinals());
 
         TypeSpec itemTypesClass = TypeSpec.interfaceBuilder("ItemNamespaceId")
                 .addJavadoc("This class is generated automatically, do not change it manually.")
@@ -23,21 +35,76 @@ public class ItemNamespaceIdGen {
                 .addFields(createItemConstants(itemIds))
                 .build();
 
-        JavaFile javaFile = JavaFile.builder("cn.nukkit.item", itemTypesClass)
-                .indent("    ")
-                .skipJavaLangImports(true)
+        TypeSpec itemOrdinalsClass = TypeSpec.classBuilder("ItemNamespaceOrdinal")
+                .addJavadoc("This class is generated automatically, do not change it manually.\n")
+                .addJavadoc("<p>\n")
+                .addJavadoc("Ordinals are assigned append-only, so an item keeps its ordinal across versions and ordinals of\n")
+                .addJavadoc("removed items are never reused. They still differ between servers with different custom items.")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addFields(createOrdinalConstants(itemIds, ordinals))
+                .addFields(createTableFields(itemIds, ordinals))
+                .addStaticBlock(createTableInitializer())
+                .addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build())
+                .addMethods(createOrdinalMethods())
                 .build();
-        javaFile.writeTo(Path.of("generated/"));
+
+        List<Path> files = new ArrayList<>();
+        for (TypeSpec typeSpec : List.of(itemTypesClass, itemOrdinalsClass)) {
+            JavaFile javaFile = JavaFile.builder("cn.nukkit.item", typeSpec)
+                    .indent("    ")
+                    .skipJavaLangImports(true)
+                    .build();
+            files.add(javaFile.writeToPath(options.outputDir()));
+        }
+        return files;
     }
 
-    private static List<String> prepareItemEntries() {
-        List<String> itemEntries = KaoootDataUtil.getItemPalette().keySet().stream()
+    private static List<String> prepareItemEntries(CustomContent customContent) {
+        List<String> itemEntries = Stream.of(
+                        KaoootDataUtil.getItemPalette().keySet(),
+                        customContent.items().keySet(),
+                        customContent.blocks().keySet())
+                .flatMap(Set::stream)
                 .sorted()
                 .filter(id -> !id.startsWith("minecraft:item."))
                 .collect(Collectors.toList());
         return itemEntries;
     }
 
+    /**
+     * Returns the append-only ordinal assignment. The bundled one is only read, so identifiers without an
+     * ordinal fail generation unless an assignment file is given, which they are then appended to.
+     * Identifiers that disappeared keep their ordinal as an unused slot.
+     */
+    private static List<String> assignOrdinals(List<String> itemIds, Path ordinalsFile) {
+        if (ordinalsFile == null) {
+            List<String> ordinals = GenericDataUtil.getItemOrdinals(BUNDLED_ORDINALS);
+            List<String> missing = findMissingOrdinals(itemIds, ordinals);
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException(missing.size() + " item identifiers have no ordinal, e.g. " + missing.get(0)
+                        + ". Append them with --item-ordinals src/main/resources/" + BUNDLED_ORDINALS + " and commit the file");
+            }
+            return ordinals;
+        }
+
+        List<String> ordinals = Files.exists(ordinalsFile)
+                ? GenericDataUtil.getItemOrdinals(ordinalsFile)
+                : GenericDataUtil.getItemOrdinals(BUNDLED_ORDINALS);
+        List<String> missing = findMissingOrdinals(itemIds, ordinals);
+        if (!missing.isEmpty() || !Files.exists(ordinalsFile)) {
+            ordinals.addAll(missing);
+            GenericDataUtil.saveItemOrdinals(ordinalsFile, ordinals);
+        }
+        return ordinals;
+    }
+
+    private static List<String> findMissingOrdinals(List<String> itemIds, List<String> ordinals) {
+        Set<String> assigned = new HashSet<>(ordinals);
+        return itemIds.stream()
+                .filter(id -> !assigned.contains(id))
+                .collect(Collectors.toList());
+    }
+
     private static List<FieldSpec> createItemConstants(List<String> itemIds) {
         return itemIds.stream()
                 .map(id -> {
@@ -51,4 +118,89 @@ public class ItemNamespaceIdGen {
                 })
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    private static List<FieldSpec> createOrdinalConstants(List<String> itemIds, List<String> ordinals) {
+        Set<String> present = new HashSet<>(itemIds);
+        List<FieldSpec> fields = new ArrayList<>();
+        for (int ordinal = 0; ordinal < ordinals.size(); ordinal++) {
+            if (!present.contains(ordinals.get(ordinal))) {
+                continue;
+            }
+            String name = ordinals.get(ordinal).split(":")[1].toUpperCase();
+            fields.add(FieldSpec.builder(
+                            TypeName.INT,
+                            name,
+                            Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("$L", ordinal)
+                    .build());
+        }
+        fields.add(FieldSpec.builder(
+                        TypeName.INT,
+                        "COUNT",
+                        Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
+                .initializer("$L", ordinals.size())
+                .build());
+        return fields;
+    }
+
+    private static List<FieldSpec> createTableFields(List<String> itemIds, List<String> ordinals) {
+        Set<String> present = new HashSet<>(itemIds);
+        CodeBlock.Builder identifiers = CodeBlock.builder().add("{\n").indent();
+        for (String id : ordinals) {
+            if (present.contains(id)) {
+                identifiers.add("$S,\n", id);
+            } else {
+                identifiers.add("null,\n");
+            }
+        }
+        identifiers.unindent().add("}");
+
+        return List.of(
+                FieldSpec.builder(
+                                ArrayTypeName.of(String.class),
+                                "ORDINAL_TO_ID",
+                                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer(identifiers.build())
+                        .build(),
+                FieldSpec.builder(
+                                ParameterizedTypeName.get(
+                                        ClassName.get("it.unimi.dsi.fastutil.objects", "Object2IntMap"),
+                                        ClassName.get(String.class)
+                                ),
+                                "ID_TO_ORDINAL",
+                                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new $T<>(COUNT)", ClassName.get("it.unimi.dsi.fastutil.objects", "Object2IntOpenHashMap"))
+                        .build()
+        );
+    }
+
+    private static CodeBlock createTableInitializer() {
+        return CodeBlock.builder()
+                .addStatement("ID_TO_ORDINAL.defaultReturnValue(-1)")
+                .beginControlFlow("for (int ordinal = 0; ordinal < COUNT; ordinal++)")
+                .beginControlFlow("if (ORDINAL_TO_ID[ordinal] != null)")
+                .addStatement("ID_TO_ORDINAL.put(ORDINAL_TO_ID[ordinal], ordinal)")
+                .endControlFlow()
+                .endControlFlow()
+                .build();
+    }
+
+    private static List<MethodSpec> createOrdinalMethods() {
+        return List.of(
+                MethodSpec.methodBuilder("getOrdinal")
+                        .addJavadoc("Returns the ordinal of the given item identifier or -1 if it is unknown.")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .returns(TypeName.INT)
+                        .addParameter(String.class, "identifier")
+                        .addStatement("return ID_TO_ORDINAL.getInt(identifier)")
+                        .build(),
+                MethodSpec.methodBuilder("getIdentifier")
+                        .addJavadoc("Returns the item identifier with the given ordinal or null if it is out of range or no longer used.")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .returns(String.class)
+                        .addParameter(TypeName.INT, "ordinal")
+                        .addStatement("return ordinal >= 0 && ordinal < COUNT ? ORDINAL_TO_ID[ordinal] : null")
+                        .build()
+        );
+    }
+}
@@ -1,5 +1,7 @@
 package com.luminiadev.lumi.codegen.generator;
 
+import com.luminiadev.lumi.codegen.CodeGenOptions;
+import com.luminiadev.lumi.codegen.data.CustomContent;
 import com.luminiadev.lumi.codegen.data.KaoootDataUtil;
 import com.palantir.javapoet.*;
 import lombok.SneakyThrows;
@@ -10,33 +12,42 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class ItemTagsGen {
     private static final ClassName ITEM_TAG_CLASS = ClassName.get("cn.nukkit.item.material.tags", "ItemTag");
     private static final ClassName LAZY_ITEM_TAG_CLASS = ClassName.get("cn.nukkit.item.material.tags.impl", "LazyItemTag");
+    private static final ClassName ITEM_TYPE_CLASS = ClassName.get("cn.nukkit.item.material", "ItemType");
+    private static final ClassName ITEM_TYPES_CLASS = ClassName.get("cn.nukkit.item.material", "ItemTypes");
+    private static final ClassName CUSTOM_ITEM_TAG_CLASS = ClassName.get("cn.nukkit.item.material.tags", "ItemTags", "CustomItemTag");
 
     @SneakyThrows
-    public static void generate() {
-        List<String> itemTags = prepareItemTags();
+    public static List<Path> generate(CodeGenOptions options, CustomContent customContent) {
+        Map<String, Set<String>> customTags = customContent.itemTags();
+        List<String> itemTags = prepareItemTags(customTags);
 
-        TypeSpec itemTagsClass = TypeSpec.classBuilder("ItemTags")
+        TypeSpec.Builder itemTagsClass = TypeSpec.classBuilder("ItemTags")
                 .addJavadoc("This class is generated automatically, do not change it manually.")
                 .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
                 .addFields(createMapFields())
-                .addFields(createTagConstants(itemTags))
-                .addMethods(createUtilityMethods())
-                .build();
+                .addFields(createLookupCounterFields(options.instrumented()))
+                .addFields(createTagConstants(itemTags, customTags))
+                .addMethods(createUtilityMethods(options.instrumented()));
+        if (!customTags.isEmpty()) {
+            itemTagsClass.addType(createCustomItemTag());
+        }
 
-        JavaFile javaFile = JavaFile.builder("cn.nukkit.item.material.tags", itemTagsClass)
+        JavaFile javaFile = JavaFile.builder("cn.nukkit.item.material.tags", itemTagsClass.build())
                 .indent("    ")
                 .skipJavaLangImports(true)
                 .build();
-        javaFile.writeTo(Path.of("generated/"));
+        return List.of(javaFile.writeToPath(options.outputDir()));
     }
 
-    private static List<String> prepareItemTags() {
+    private static List<String> prepareItemTags(Map<String, Set<String>> customTags) {
         Map<String, Set<String>> vanillaItemTags = KaoootDataUtil.getVanillaItemTags();
-        return vanillaItemTags.keySet().stream()
+        return Stream.concat(vanillaItemTags.keySet().stream(), customTags.keySet().stream())
+                .distinct()
                 .sorted()
                 .collect(Collectors.toList());
     }
@@ -69,19 +80,71 @@ public class ItemTagsGen {
         );
     }
 
-    private static List<FieldSpec> createTagConstants(List<String> itemTags) {
+    private static List<FieldSpec> createTagConstants(List<String> itemTags, Map<String, Set<String>> customTags) {
         return itemTags.stream()
                 .map(itemTag -> {
                     String name = itemTag.split(":")[1].toUpperCase();
+                    Set<String> customMembers = customTags.get(itemTag);
+                    CodeBlock tag = customMembers == null
+                            ? CodeBlock.of("new $T($S)", LAZY_ITEM_TAG_CLASS, itemTag)
+                            : CodeBlock.of("new $T($S, $L)", CUSTOM_ITEM_TAG_CLASS, itemTag, customMembers.stream()
+                                    .sorted()
+                                    .map(identifier -> CodeBlock.of("$S", identifier))
+                                    .collect(CodeBlock.joining(", ")));
                     return FieldSpec.builder(ITEM_TAG_CLASS, name)
                             .addModifiers(Modifier.PUBLIC, Modifier.STATIC, Modifier.FINAL)
-                            .initializer("register($S, new $T($S))", itemTag, LAZY_ITEM_TAG_CLASS, itemTag)
+                            .initializer("register($S, $L)", itemTag, tag)
                             .build();
                 })
                 .collect(Collectors.toList());
     }
 
-    private static List<MethodSpec> createUtilityMethods() {
+    /**
+     * Creates a tag that resolves its vanilla members like {@code LazyItemTag} and adds the custom ones,
+     * so custom members are both in the tag and in {@code getTagsSet}.
+     */
+    private static TypeSpec createCustomItemTag() {
+        TypeName itemTypeSet = ParameterizedTypeName.get(ClassName.get("java.util", "Set"), ITEM_TYPE_CLASS);
+        return TypeSpec.classBuilder("CustomItemTag")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .superclass(LAZY_ITEM_TAG_CLASS)
+                .addField(FieldSpec.builder(ArrayTypeName.of(String.class), "customMembers", Modifier.PRIVATE, Modifier.FINAL).build())
+                .addField(FieldSpec.builder(itemTypeSet, "itemTypes", Modifier.PRIVATE).build())
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PRIVATE)
+                        .addParameter(String.class, "tagName")
+                        .addParameter(ArrayTypeName.of(String.class), "customMembers")
+                        .varargs()
+                        .addStatement("super(tagName)")
+                        .addStatement("this.customMembers = customMembers")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getItemTypes")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(itemTypeSet)
+                        .beginControlFlow("if (this.itemTypes == null)")
+                        .addStatement("$T itemTypes = new $T<>(super.getItemTypes())", itemTypeSet, ClassName.get("java.util", "HashSet"))
+                        .beginControlFlow("for ($T identifier : this.customMembers)", String.class)
+                        .addStatement("$T itemType = $T.get(identifier)", ITEM_TYPE_CLASS, ITEM_TYPES_CLASS)
+                        .beginControlFlow("if (itemType != null)")
+                        .addStatement("itemTypes.add(itemType)")
+                        .endControlFlow()
+                        .endControlFlow()
+                        .addStatement("this.itemTypes = $T.unmodifiableSet(itemTypes)", ClassName.get("java.util", "Collections"))
+                        .endControlFlow()
+                        .addStatement("return this.itemTypes")
+                        .build())
+                .build();
+    }
+
+    private static List<FieldSpec> createLookupCounterFields(boolean instrumented) {
+        if (!instrumented) {
+            return List.of();
+        }
+        return List.of(RegistryMetricsGen.createCounterField("GET_TAGS_SET_LOOKUPS", "ItemTags.getTagsSet"));
+    }
+
+    private static List<MethodSpec> createUtilityMethods(boolean instrumented) {
         return List.of(
                 MethodSpec.methodBuilder("register")
                         .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
@@ -106,8 +169,10 @@ public class ItemTagsGen {
                                 ITEM_TAG_CLASS
                         ))
                         .addParameter(String.class, "identifier")
-                        .addStatement("return ITEM_2_TAGS.getOrDefault(identifier, $T.emptySet())",
-                                ClassName.get("java.util", "Collections"))
+                        .addCode(instrumented ? createCountedTagsLookup() : CodeBlock.builder()
+                                .addStatement("return ITEM_2_TAGS.getOrDefault(identifier, $T.emptySet())",
+                                        ClassName.get("java.util", "Collections"))
+                                .build())
                         .build(),
                 MethodSpec.methodBuilder("getTag")
                         .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
@@ -117,4 +182,19 @@ public class ItemTagsGen {
                         .build()
         );
     }
+
+    private static CodeBlock createCountedTagsLookup() {
+        return CodeBlock.builder()
+                .addStatement("$T tags = ITEM_2_TAGS.get(identifier)", ParameterizedTypeName.get(
+                        ClassName.get("java.util", "Set"),
+                        ITEM_TAG_CLASS
+                ))
+                .beginControlFlow("if (tags == null)")
+                .addStatement("GET_TAGS_SET_LOOKUPS.miss(identifier)")
+                .addStatement("return $T.emptySet()", ClassName.get("java.util", "Collections"))
+                .endControlFlow()
+                .addStatement("GET_TAGS_SET_LOOKUPS.hit()")
+                .addStatement("return tags")
+                .build();
+    }
 }
\ No newline at end of file
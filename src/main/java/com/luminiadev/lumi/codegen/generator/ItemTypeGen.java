@@ -1,13 +1,15 @@
 package com.luminiadev.lumi.codegen.generator;
 
+import com.luminiadev.lumi.codegen.CodeGenOptions;
+import com.luminiadev.lumi.codegen.data.CustomContent;
 import com.luminiadev.lumi.codegen.data.GenericDataUtil;
 import com.palantir.javapoet.*;
-import lombok.Data;
 import lombok.NonNull;
 import lombok.SneakyThrows;
 
 import javax.lang.model.element.Modifier;
 import java.nio.file.Path;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -16,15 +18,19 @@ public class ItemTypeGen {
     private static final ClassName ITEM_TYPE_CLASS = ClassName.get("cn.nukkit.item.material", "ItemType");
 
     @SneakyThrows
-    public static void generate() {
-        List<ItemEntry> itemEntries = prepareItemEntries();
+    public static List<Path> generate(CodeGenOptions options, CustomContent customContent) {
+        List<ItemEntry> itemEntries = prepareItemEntries(customContent);
+        List<ItemEntry> hotEntries = sortHotEntries(itemEntries, GenericDataUtil.getAccessProfile(options.accessProfile()));
 
         TypeSpec itemTypesClass = TypeSpec.classBuilder("ItemTypes")
                 .addJavadoc("This class is generated automatically, do not change it manually.")
                 .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
-                .addFields(createMapFields())
+                .addFields(createMapFields(itemEntries.size()))
+                .addFields(createLookupCounterFields(options.instrumented()))
+                .addFields(createHotTypeFields(hotEntries))
                 .addFields(createItemConstants(itemEntries))
-                .addMethods(createUtilityMethods())
+                .addMethods(createUtilityMethods(options.instrumented()))
+                .addMethods(createHotTypeMethods(hotEntries))
                 .addType(createItemTypeImpl())
                 .build();
 
@@ -32,11 +38,13 @@ public class ItemTypeGen {
                 .indent("    ")
                 .skipJavaLangImports(true)
                 .build();
-        javaFile.writeTo(Path.of("generated/"));
+        return List.of(javaFile.writeToPath(options.outputDir()));
     }
 
-    private static List<ItemEntry> prepareItemEntries() {
+    private static List<ItemEntry> prepareItemEntries(CustomContent customContent) {
         Map<String, Integer> cbLegacyItemIds = GenericDataUtil.getRuntimeItemIds("data/cloudburst/runtime_item_states.json");
+        cbLegacyItemIds.putAll(customContent.items());
+        cbLegacyItemIds.putAll(customContent.blocks());
 
         List<ItemEntry> itemEntries = cbLegacyItemIds.entrySet().stream()
                 .map(entry -> new ItemEntry(entry.getKey(), entry.getValue()))
@@ -46,7 +54,16 @@ public class ItemTypeGen {
         return itemEntries;
     }
 
-    private static List<FieldSpec> createMapFields() {
+    private static List<ItemEntry> sortHotEntries(List<ItemEntry> itemEntries, Map<String, Long> accessProfile) {
+        return itemEntries.stream()
+                .filter(entry -> accessProfile.getOrDefault(entry.identifier, 0L) > 0)
+                .sorted(Comparator.comparingLong((ItemEntry entry) -> accessProfile.get(entry.identifier))
+                        .reversed()
+                        .thenComparing(Comparator.naturalOrder()))
+                .collect(Collectors.toList());
+    }
+
+    private static List<FieldSpec> createMapFields(int expectedSize) {
         return List.of(
                 FieldSpec.builder(
                                 ParameterizedTypeName.get(
@@ -55,7 +72,7 @@ public class ItemTypeGen {
                                 ),
                                 "RUNTIME_TO_TYPE",
                                 Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
-                        .initializer("new $T<>()", ClassName.get("it.unimi.dsi.fastutil.ints", "Int2ObjectOpenHashMap"))
+                        .initializer("new $T<>($L)", ClassName.get("it.unimi.dsi.fastutil.ints", "Int2ObjectOpenHashMap"), expectedSize)
                         .build(),
                 FieldSpec.builder(
                                 ParameterizedTypeName.get(
@@ -65,7 +82,25 @@ public class ItemTypeGen {
                                 ),
                                 "ID_TO_TYPE",
                                 Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
-                        .initializer("new $T<>()", ClassName.get("it.unimi.dsi.fastutil.objects", "Object2ObjectOpenHashMap"))
+                        .initializer("new $T<>($L)", ClassName.get("it.unimi.dsi.fastutil.objects", "Object2ObjectOpenHashMap"), expectedSize)
+                        .build(),
+                FieldSpec.builder(
+                                ParameterizedTypeName.get(
+                                        ClassName.get("it.unimi.dsi.fastutil.objects", "ObjectList"),
+                                        ITEM_TYPE_CLASS
+                                ),
+                                "INDEX_TO_TYPE",
+                                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new $T<>($L)", ClassName.get("it.unimi.dsi.fastutil.objects", "ObjectArrayList"), expectedSize)
+                        .build(),
+                FieldSpec.builder(
+                                ParameterizedTypeName.get(
+                                        ClassName.get("it.unimi.dsi.fastutil.objects", "Reference2IntMap"),
+                                        ITEM_TYPE_CLASS
+                                ),
+                                "TYPE_TO_INDEX",
+                                Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("new $T<>()", ClassName.get("it.unimi.dsi.fastutil.objects", "Reference2IntOpenHashMap"))
                         .build()
         );
     }
@@ -84,14 +119,55 @@ public class ItemTypeGen {
                 .collect(Collectors.toList());
     }
 
-    private static List<MethodSpec> createUtilityMethods() {
+    private static List<FieldSpec> createHotTypeFields(List<ItemEntry> hotEntries) {
+        if (hotEntries.isEmpty()) {
+            return List.of();
+        }
+        return List.of(FieldSpec.builder(TypeName.INT, "HOT_TYPE_COUNT", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .addJavadoc("Only exists so that {@link #registerHotTypes()} runs before the constants below are initialized.")
+                .initializer("registerHotTypes()")
+                .build());
+    }
+
+    private static List<MethodSpec> createHotTypeMethods(List<ItemEntry> hotEntries) {
+        if (hotEntries.isEmpty()) {
+            return List.of();
+        }
+
+        MethodSpec.Builder builder = MethodSpec.methodBuilder("registerHotTypes")
+                .addJavadoc("Registers the most accessed types before the constants, so they get the lowest indices and their home hash slots.")
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .returns(TypeName.INT);
+        for (ItemEntry entry : hotEntries) {
+            builder.addStatement("register($S, $L)", entry.identifier, entry.runtimeId);
+        }
+        return List.of(builder.addStatement("return $L", hotEntries.size()).build());
+    }
+
+    private static List<FieldSpec> createLookupCounterFields(boolean instrumented) {
+        if (!instrumented) {
+            return List.of();
+        }
+        return List.of(
+                RegistryMetricsGen.createCounterField("GET_LOOKUPS", "ItemTypes.get"),
+                RegistryMetricsGen.createCounterField("GET_FROM_RUNTIME_LOOKUPS", "ItemTypes.getFromRuntime")
+        );
+    }
+
+    private static List<MethodSpec> createUtilityMethods(boolean instrumented) {
         return List.of(
                 MethodSpec.methodBuilder("register")
                         .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
                         .returns(ITEM_TYPE_CLASS)
                         .addParameter(String.class, "identifier")
                         .addParameter(TypeName.INT, "runtimeId")
-                        .addStatement("return register(new ItemTypeImpl(identifier, runtimeId))")
+                        .addStatement("ItemType oldType = ID_TO_TYPE.get(identifier)")
+                        .beginControlFlow("if (oldType != null)")
+                        .addComment("Keeps the runtime ID of aliases resolvable, e.g. block forms of item.* entries")
+                        .addStatement("RUNTIME_TO_TYPE.putIfAbsent(runtimeId, oldType)")
+                        .addStatement("return oldType")
+                        .endControlFlow()
+                        .addStatement("return register(new ItemTypeImpl(identifier, runtimeId, INDEX_TO_TYPE.size()))")
                         .build(),
                 MethodSpec.methodBuilder("register")
                         .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
@@ -100,30 +176,105 @@ public class ItemTypeGen {
                         .addStatement("ItemType oldType = ID_TO_TYPE.get(itemType.getIdentifier())")
                         .addStatement("RUNTIME_TO_TYPE.putIfAbsent(itemType.getRuntimeId(), itemType)")
                         .addStatement("ID_TO_TYPE.putIfAbsent(itemType.getIdentifier(), itemType)")
+                        .beginControlFlow("if (oldType == null)")
+                        .beginControlFlow("if (!(itemType instanceof ItemTypeImpl))")
+                        .addStatement("TYPE_TO_INDEX.put(itemType, INDEX_TO_TYPE.size())")
+                        .endControlFlow()
+                        .addStatement("INDEX_TO_TYPE.add(itemType)")
+                        .endControlFlow()
                         .addStatement("return oldType != null ? oldType : itemType")
                         .build(),
                 MethodSpec.methodBuilder("get")
                         .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
                         .returns(ITEM_TYPE_CLASS)
                         .addParameter(String.class, "identifier")
-                        .addStatement("return ID_TO_TYPE.get(identifier)")
+                        .addCode(instrumented
+                                ? RegistryMetricsGen.createCountedLookup(ITEM_TYPE_CLASS, "ID_TO_TYPE.get(identifier)", "GET_LOOKUPS", "identifier")
+                                : CodeBlock.of("return ID_TO_TYPE.get(identifier);\n"))
                         .build(),
                 MethodSpec.methodBuilder("getFromRuntime")
                         .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
                         .returns(ITEM_TYPE_CLASS)
                         .addParameter(TypeName.INT, "runtimeId")
-                        .addStatement("return RUNTIME_TO_TYPE.get(runtimeId)")
+                        .addCode(instrumented
+                                ? RegistryMetricsGen.createCountedLookup(ITEM_TYPE_CLASS, "RUNTIME_TO_TYPE.get(runtimeId)", "GET_FROM_RUNTIME_LOOKUPS", "runtimeId")
+                                : CodeBlock.of("return RUNTIME_TO_TYPE.get(runtimeId);\n"))
+                        .build(),
+                MethodSpec.methodBuilder("getFromIndex")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .returns(ITEM_TYPE_CLASS)
+                        .addParameter(TypeName.INT, "index")
+                        .addStatement("return index >= 0 && index < INDEX_TO_TYPE.size() ? INDEX_TO_TYPE.get(index) : null")
+                        .build(),
+                MethodSpec.methodBuilder("getIndex")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .returns(TypeName.INT)
+                        .addParameter(ITEM_TYPE_CLASS, "itemType")
+                        .addStatement("return itemType instanceof ItemTypeImpl impl ? impl.getIndex() : TYPE_TO_INDEX.getOrDefault(itemType, -1)")
+                        .build(),
+                MethodSpec.methodBuilder("size")
+                        .addModifiers(Modifier.PUBLIC, Modifier.STATIC)
+                        .returns(TypeName.INT)
+                        .addStatement("return INDEX_TO_TYPE.size()")
                         .build()
         );
     }
 
     private static TypeSpec createItemTypeImpl() {
         return TypeSpec.classBuilder("ItemTypeImpl")
-                .addModifiers(Modifier.PRIVATE, Modifier.STATIC)
+                .addModifiers(Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
                 .addSuperinterface(ITEM_TYPE_CLASS)
-                .addAnnotation(Data.class)
                 .addField(FieldSpec.builder(String.class, "identifier", Modifier.PRIVATE, Modifier.FINAL).build())
                 .addField(FieldSpec.builder(TypeName.INT, "runtimeId", Modifier.PRIVATE, Modifier.FINAL).build())
+                .addField(FieldSpec.builder(TypeName.INT, "index", Modifier.PRIVATE, Modifier.FINAL).build())
+                .addField(FieldSpec.builder(TypeName.INT, "hash", Modifier.PRIVATE, Modifier.FINAL).build())
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PRIVATE)
+                        .addParameter(String.class, "identifier")
+                        .addParameter(TypeName.INT, "runtimeId")
+                        .addParameter(TypeName.INT, "index")
+                        .addStatement("this.identifier = identifier")
+                        .addStatement("this.runtimeId = runtimeId")
+                        .addStatement("this.index = index")
+                        .addStatement("this.hash = $T.murmurHash3(identifier.hashCode() * 31 + runtimeId)",
+                                ClassName.get("it.unimi.dsi.fastutil", "HashCommon"))
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getIdentifier")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(String.class)
+                        .addStatement("return this.identifier")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getRuntimeId")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(TypeName.INT)
+                        .addStatement("return this.runtimeId")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getIndex")
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(TypeName.INT)
+                        .addStatement("return this.index")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("equals")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(TypeName.BOOLEAN)
+                        .addParameter(Object.class, "o")
+                        .addStatement("return this == o")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("hashCode")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(TypeName.INT)
+                        .addStatement("return this.hash")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("toString")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(String.class)
+                        .addStatement("return $S + this.identifier + $S + this.runtimeId + $S", "ItemTypeImpl(identifier=", ", runtimeId=", ")")
+                        .build())
                 .build();
     }
 
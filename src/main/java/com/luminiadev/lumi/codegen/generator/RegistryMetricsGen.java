@@ -0,0 +1,222 @@
+package com.luminiadev.lumi.codegen.generator;
+
+import com.luminiadev.lumi.codegen.CodeGenOptions;
+import com.palantir.javapoet.*;
+import lombok.SneakyThrows;
+
+import javax.lang.model.element.Modifier;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class RegistryMetricsGen {
+    private static final String PACKAGE = "cn.nukkit.registry.metrics";
+    private static final ClassName LOOKUP_MXBEAN_CLASS = ClassName.get(PACKAGE, "RegistryLookupMXBean");
+    private static final ClassName LOOKUP_MISS_EVENT_CLASS = ClassName.get(PACKAGE, "RegistryLookupMissEvent");
+    private static final ClassName LOOKUP_COUNTER_CLASS = ClassName.get(PACKAGE, "RegistryLookupCounter");
+    private static final int MISS_SAMPLE_SIZE = 64;
+
+    @SneakyThrows
+    public static List<Path> generate(CodeGenOptions options) {
+        List<Path> files = new ArrayList<>();
+        for (TypeSpec typeSpec : List.of(createMXBean(), createMissEvent(), createCounter(options.missSampleRate()))) {
+            JavaFile javaFile = JavaFile.builder(PACKAGE, typeSpec)
+                    .indent("    ")
+                    .skipJavaLangImports(true)
+                    .build();
+            files.add(javaFile.writeToPath(options.outputDir()));
+        }
+        return files;
+    }
+
+    /**
+     * Creates a counter field for the instrumented lookup, registered as MXBean under the given name.
+     */
+    public static FieldSpec createCounterField(String fieldName, String lookupName) {
+        return FieldSpec.builder(LOOKUP_COUNTER_CLASS, fieldName, Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                .initializer("new $T($S)", LOOKUP_COUNTER_CLASS, lookupName)
+                .build();
+    }
+
+    /**
+     * Creates a method body that performs the lookup, counts its hit or miss and returns the result.
+     */
+    public static CodeBlock createCountedLookup(TypeName resultType, String lookup, String counterField, String key) {
+        return CodeBlock.builder()
+                .addStatement("$T result = $L", resultType, lookup)
+                .beginControlFlow("if (result != null)")
+                .addStatement("$L.hit()", counterField)
+                .nextControlFlow("else")
+                .addStatement("$L.miss($L)", counterField, key)
+                .endControlFlow()
+                .addStatement("return result")
+                .build();
+    }
+
+    private static TypeSpec createMXBean() {
+        return TypeSpec.interfaceBuilder("RegistryLookupMXBean")
+                .addJavadoc("This class is generated automatically, do not change it manually.")
+                .addModifiers(Modifier.PUBLIC)
+                .addMethod(MethodSpec.methodBuilder("getName")
+                        .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                        .returns(String.class)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getHits")
+                        .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                        .returns(TypeName.LONG)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getMisses")
+                        .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                        .returns(TypeName.LONG)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getMissSamples")
+                        .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                        .returns(ArrayTypeName.of(String.class))
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("reset")
+                        .addModifiers(Modifier.PUBLIC, Modifier.ABSTRACT)
+                        .build())
+                .build();
+    }
+
+    private static TypeSpec createMissEvent() {
+        return TypeSpec.classBuilder("RegistryLookupMissEvent")
+                .addJavadoc("This class is generated automatically, do not change it manually.")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .superclass(ClassName.get("jdk.jfr", "Event"))
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("jdk.jfr", "Name"))
+                        .addMember("value", "$S", "cn.nukkit.RegistryLookupMiss")
+                        .build())
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("jdk.jfr", "Label"))
+                        .addMember("value", "$S", "Registry Lookup Miss")
+                        .build())
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("jdk.jfr", "Category"))
+                        .addMember("value", "{$S, $S}", "Lumi", "Registry")
+                        .build())
+                .addAnnotation(AnnotationSpec.builder(ClassName.get("jdk.jfr", "StackTrace"))
+                        .addMember("value", "true")
+                        .build())
+                .addField(FieldSpec.builder(String.class, "lookup")
+                        .addAnnotation(AnnotationSpec.builder(ClassName.get("jdk.jfr", "Label"))
+                                .addMember("value", "$S", "Lookup")
+                                .build())
+                        .build())
+                .addField(FieldSpec.builder(String.class, "key")
+                        .addAnnotation(AnnotationSpec.builder(ClassName.get("jdk.jfr", "Label"))
+                                .addMember("value", "$S", "Key")
+                                .build())
+                        .build())
+                .build();
+    }
+
+    private static MethodSpec createMissMethod(TypeName keyType, CodeBlock keyToString) {
+        return MethodSpec.methodBuilder("miss")
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(keyType, "key")
+                .addStatement("this.misses.increment()")
+                .beginControlFlow("if (MISS_SAMPLE_RATE > 0 && $T.current().nextInt(MISS_SAMPLE_RATE) == 0)",
+                        ClassName.get("java.util.concurrent", "ThreadLocalRandom"))
+                .addStatement("this.missSamples.set(this.missSampleCursor.getAndIncrement() & (MISS_SAMPLE_SIZE - 1), $L)", keyToString)
+                .endControlFlow()
+                .addStatement("$T event = new $T()", LOOKUP_MISS_EVENT_CLASS, LOOKUP_MISS_EVENT_CLASS)
+                .beginControlFlow("if (event.shouldCommit())")
+                .addStatement("event.lookup = this.name")
+                .addStatement("event.key = $L", keyToString)
+                .addStatement("event.commit()")
+                .endControlFlow()
+                .build();
+    }
+
+    private static TypeSpec createCounter(int missSampleRate) {
+        return TypeSpec.classBuilder("RegistryLookupCounter")
+                .addJavadoc("This class is generated automatically, do not change it manually.")
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addSuperinterface(LOOKUP_MXBEAN_CLASS)
+                .addField(FieldSpec.builder(TypeName.INT, "MISS_SAMPLE_RATE", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("$L", missSampleRate)
+                        .build())
+                .addField(FieldSpec.builder(TypeName.INT, "MISS_SAMPLE_SIZE", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("$L", MISS_SAMPLE_SIZE)
+                        .build())
+                .addField(FieldSpec.builder(String.class, "name", Modifier.PRIVATE, Modifier.FINAL).build())
+                .addField(FieldSpec.builder(ClassName.get("java.util.concurrent.atomic", "LongAdder"), "hits", Modifier.PRIVATE, Modifier.FINAL)
+                        .initializer("new $T()", ClassName.get("java.util.concurrent.atomic", "LongAdder"))
+                        .build())
+                .addField(FieldSpec.builder(ClassName.get("java.util.concurrent.atomic", "LongAdder"), "misses", Modifier.PRIVATE, Modifier.FINAL)
+                        .initializer("new $T()", ClassName.get("java.util.concurrent.atomic", "LongAdder"))
+                        .build())
+                .addField(FieldSpec.builder(
+                                ParameterizedTypeName.get(
+                                        ClassName.get("java.util.concurrent.atomic", "AtomicReferenceArray"),
+                                        ClassName.get(String.class)
+                                ),
+                                "missSamples",
+                                Modifier.PRIVATE, Modifier.FINAL)
+                        .initializer("new $T<>(MISS_SAMPLE_SIZE)", ClassName.get("java.util.concurrent.atomic", "AtomicReferenceArray"))
+                        .build())
+                .addField(FieldSpec.builder(ClassName.get("java.util.concurrent.atomic", "AtomicInteger"), "missSampleCursor", Modifier.PRIVATE, Modifier.FINAL)
+                        .initializer("new $T()", ClassName.get("java.util.concurrent.atomic", "AtomicInteger"))
+                        .build())
+                .addMethod(MethodSpec.constructorBuilder()
+                        .addModifiers(Modifier.PUBLIC)
+                        .addParameter(String.class, "name")
+                        .addStatement("this.name = name")
+                        .beginControlFlow("try")
+                        .addStatement("$T.getPlatformMBeanServer().registerMBean(this, new $T($S + name))",
+                                ClassName.get("java.lang.management", "ManagementFactory"),
+                                ClassName.get("javax.management", "ObjectName"),
+                                "cn.nukkit:type=RegistryLookup,name=")
+                        .nextControlFlow("catch ($T ignored)", ClassName.get("javax.management", "JMException"))
+                        .addComment("Counting still works without the MXBean")
+                        .endControlFlow()
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("hit")
+                        .addModifiers(Modifier.PUBLIC)
+                        .addStatement("this.hits.increment()")
+                        .build())
+                .addMethod(createMissMethod(TypeName.OBJECT, CodeBlock.of("$T.valueOf(key)", String.class)))
+                // Primitive keys are only converted when sampled or recorded, so misses do not box
+                .addMethod(createMissMethod(TypeName.INT, CodeBlock.of("$T.toString(key)", Integer.class)))
+                .addMethod(MethodSpec.methodBuilder("getName")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(String.class)
+                        .addStatement("return this.name")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getHits")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(TypeName.LONG)
+                        .addStatement("return this.hits.sum()")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getMisses")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(TypeName.LONG)
+                        .addStatement("return this.misses.sum()")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getMissSamples")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .returns(ArrayTypeName.of(String.class))
+                        .addStatement("$T<$T> samples = new $T<>()", List.class, String.class, ClassName.get("java.util", "ArrayList"))
+                        .beginControlFlow("for (int i = 0; i < MISS_SAMPLE_SIZE; i++)")
+                        .addStatement("$T sample = this.missSamples.get(i)", String.class)
+                        .beginControlFlow("if (sample != null)")
+                        .addStatement("samples.add(sample)")
+                        .endControlFlow()
+                        .endControlFlow()
+                        .addStatement("return samples.toArray(new $T[0])", String.class)
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("reset")
+                        .addAnnotation(Override.class)
+                        .addModifiers(Modifier.PUBLIC)
+                        .addStatement("this.hits.reset()")
+                        .addStatement("this.misses.reset()")
+                        .beginControlFlow("for (int i = 0; i < MISS_SAMPLE_SIZE; i++)")
+                        .addStatement("this.missSamples.set(i, null)")
+                        .endControlFlow()
+                        .build())
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.luminiadev.lumi.codegen.generator;
 
+import com.luminiadev.lumi.codegen.CodeGenOptions;
 import com.luminiadev.lumi.codegen.data.GenericDataUtil;
 import com.palantir.javapoet.FieldSpec;
 import com.palantir.javapoet.JavaFile;
@@ -10,17 +11,17 @@ import lombok.SneakyThrows;
 import javax.lang.model.element.Modifier;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 public class SoundEnumGen {
 
     @SneakyThrows
-    public static void generate() {
-        List<String> sounds = new ArrayList<>();
-        sounds.addAll(GenericDataUtil.getSoundNames());
-        sounds.addAll(GenericDataUtil.getMusicNames());
-        sounds.sort(Comparator.naturalOrder());
+    public static List<Path> generate(CodeGenOptions options) {
+        List<String> sounds = prepareSounds();
 
         TypeSpec.Builder builder = TypeSpec.enumBuilder("Sound")
                 .addJavadoc("This class is generated automatically, do not change it manually.")
@@ -28,7 +29,7 @@ public class SoundEnumGen {
                 .addField(FieldSpec.builder(String.class, "sound", Modifier.PRIVATE, Modifier.FINAL).build());
 
         for (var sound : sounds) {
-            builder.addEnumConstant(sound.replace(".", "_").toUpperCase(), TypeSpec.anonymousClassBuilder("$S", sound).build());
+            builder.addEnumConstant(toConstantName(sound), TypeSpec.anonymousClassBuilder("$S", sound).build());
         }
 
         builder.addMethod(MethodSpec.constructorBuilder()
@@ -45,6 +46,29 @@ public class SoundEnumGen {
                 .indent("    ")
                 .skipJavaLangImports(true)
                 .build();
-        javaFile.writeTo(Path.of("generated/"));
+        return List.of(javaFile.writeToPath(options.outputDir()));
+    }
+
+    /**
+     * Returns sound names in the order of the generated {@code Sound} constants, so index in the list is the ordinal.
+     */
+    public static List<String> prepareSounds() {
+        // Music events are usually also sound definitions, the set keeps one constant per name
+        Set<String> sounds = new TreeSet<>(GenericDataUtil.getSoundNames());
+        sounds.addAll(GenericDataUtil.getMusicNames());
+
+        // Enum constants are unique by constant name, a clash would merge two sounds and shift later ordinals
+        Map<String, String> constantNames = new HashMap<>();
+        for (String sound : sounds) {
+            String clash = constantNames.putIfAbsent(toConstantName(sound), sound);
+            if (clash != null) {
+                throw new IllegalStateException("Sounds " + clash + " and " + sound + " have the same constant name");
+            }
+        }
+        return new ArrayList<>(sounds);
+    }
+
+    private static String toConstantName(String sound) {
+        return sound.replace(".", "_").toUpperCase();
     }
 }